@@ -0,0 +1,70 @@
+package com.ediluana.minhasfinancas;
+
+import com.ediluana.minhasfinancas.api.dto.LancamentoDTO;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public final class DadosBenchmark {
+    // massa de dados e dubles sem mockito (o custo do mock apareceria na medicao)
+
+    private DadosBenchmark() {
+    }
+
+    public static List<Lancamento> lancamentos(int quantidade) {
+        Usuario usuario = Usuario.builder().id(1L).build();
+        List<Lancamento> lancamentos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            lancamentos.add(Lancamento.builder().id((long) i).descricao("lancamento " + i).mes(1 + i % 12).ano(2024)
+                    .valor(BigDecimal.valueOf(1000 + i, 2)).tipo(i % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+                    .status(StatusLancamento.values()[i % 3]).dataCadastro(Instant.now()).usuario(usuario).build());
+        }
+        return lancamentos;
+    }
+
+    public static List<LancamentoResumido> resumidos(int quantidade) { // o que a listagem serializa de fato (projecao, nao a entidade)
+        List<LancamentoResumido> resumidos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            resumidos.add(new LancamentoResumido((long) i, "lancamento " + i, 1 + i % 12, 2024, BigDecimal.valueOf(1000 + i, 2),
+                    i % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA, StatusLancamento.values()[i % 3], 1L));
+        }
+        return resumidos;
+    }
+
+    public static List<LancamentoDTO> dtos(int quantidade) {
+        List<LancamentoDTO> dtos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            dtos.add(LancamentoDTO.builder().id((long) i).descricao("lancamento " + i).mes(1 + i % 12).ano(2024).valor(BigDecimal.valueOf(1000 + i, 2))
+                    .usuario(1L).tipo(i % 3 == 0 ? "RECEITA" : "DESPESA").status(StatusLancamento.values()[i % 3].name()).build());
+        }
+        return dtos;
+    }
+
+    public static ConfigurableApplicationContext contexto(Class<?>... configuracoes) {
+        // so as configuracoes pedidas, com o application.properties e sem banco nem servidor: o mapper sai igual ao da aplicacao
+        return new SpringApplicationBuilder(configuracoes).web(WebApplicationType.NONE).bannerMode(Banner.Mode.OFF).logStartupInfo(false).run();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T duble(Class<T> tipo, Map<String, Object> respostas) { // metodo -> retorno fixo; o resto falha
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            if (respostas.containsKey(metodo.getName())) {
+                return respostas.get(metodo.getName());
+            }
+            throw new UnsupportedOperationException(metodo.getName());
+        });
+    }
+}
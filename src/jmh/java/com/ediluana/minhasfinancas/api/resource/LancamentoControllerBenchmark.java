@@ -0,0 +1,84 @@
+package com.ediluana.minhasfinancas.api.resource;
+
+import com.ediluana.minhasfinancas.DadosBenchmark;
+import com.ediluana.minhasfinancas.api.dto.LancamentoDTO;
+import com.ediluana.minhasfinancas.config.JacksonConfig;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.service.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LancamentoControllerBenchmark {
+    // conversao do dto, parse dos enums e serializacao das listas que a api devolve
+
+    @Param({"100", "1000"})
+    public int quantidade;
+
+    private ConfigurableApplicationContext contexto;
+    private LancamentoController controller;
+    private ObjectMapper objectMapper;
+    private LancamentoDTO dto;
+    private List<Lancamento> lancamentos;
+    private List<LancamentoDTO> dtos;
+    private String tipo;
+    private String status;
+
+    @Setup
+    public void preparar() {
+        UsuarioService usuarioService = DadosBenchmark.duble(UsuarioService.class, Map.of("obterReferencia", Usuario.builder().id(1L).build()));
+        contexto = DadosBenchmark.contexto(JacksonAutoConfiguration.class, JacksonConfig.class);
+        objectMapper = contexto.getBean(ObjectMapper.class); // o mapper da aplicacao, com o BlackbirdModule
+        controller = new LancamentoController(null, usuarioService, objectMapper);
+
+        dtos = DadosBenchmark.dtos(quantidade);
+        dto = dtos.get(1);
+        lancamentos = DadosBenchmark.lancamentos(quantidade);
+        tipo = new String(dto.getTipo()); // string nova: sem atalho por identidade
+        status = new String(dto.getStatus());
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Lancamento converter() {
+        return controller.converter(dto);
+    }
+
+    @Benchmark
+    public TipoLancamento parseTipo() {
+        return TipoLancamento.valueOf(tipo);
+    }
+
+    @Benchmark
+    public StatusLancamento parseStatus() {
+        return StatusLancamento.valueOf(status);
+    }
+
+    @Benchmark
+    public byte[] serializarLancamentos() throws Exception {
+        return objectMapper.writeValueAsBytes(lancamentos);
+    }
+
+    @Benchmark
+    public byte[] serializarDtos() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
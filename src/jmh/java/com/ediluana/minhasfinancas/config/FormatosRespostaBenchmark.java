@@ -0,0 +1,76 @@
+package com.ediluana.minhasfinancas.config;
+
+import com.ediluana.minhasfinancas.DadosBenchmark;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatosRespostaBenchmark {
+    // resposta de 10k lancamentos como a listagem devolve (LancamentoResumido): json com reflection, json com blackbird, smile e cbor; com e sem gzip
+    // mappers tirados do contexto (JacksonAutoConfiguration + JacksonConfig), os mesmos dos conversores da api; "json" sobe sem o JacksonConfig
+    // os bytes de cada formato saem no inicio de cada execucao (linha "bytes formato=...")
+
+    @Param({"json", "json-blackbird", "smile", "cbor"})
+    public String formato;
+
+    @Param({"10000"})
+    public int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private ObjectMapper mapper;
+    private List<LancamentoResumido> lancamentos;
+
+    @Setup
+    public void preparar() throws IOException {
+        if (formato.equals("json")) {
+            contexto = DadosBenchmark.contexto(JacksonAutoConfiguration.class); // sem o BlackbirdModule: getters por reflection
+        } else {
+            contexto = DadosBenchmark.contexto(JacksonAutoConfiguration.class, JacksonConfig.class);
+        }
+        if (formato.equals("smile")) {
+            mapper = contexto.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+        } else if (formato.equals("cbor")) {
+            mapper = contexto.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+        } else {
+            mapper = contexto.getBean(ObjectMapper.class);
+        }
+        lancamentos = DadosBenchmark.resumidos(linhas);
+
+        System.out.printf("%nbytes formato=%s linhas=%d bruto=%d gzip=%d%n", formato, linhas, serializar().length, serializarComGzip().length);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return mapper.writeValueAsBytes(lancamentos);
+    }
+
+    @Benchmark
+    public byte[] serializarComGzip() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            mapper.writeValue(gzip, lancamentos);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ediluana.minhasfinancas.service;
+
+import com.ediluana.minhasfinancas.DadosBenchmark;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.SaldoUsuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.ediluana.minhasfinancas.service.cache.LancamentoCache;
+import com.ediluana.minhasfinancas.service.cache.VersaoLancamentos;
+import com.ediluana.minhasfinancas.service.impl.LancamentoServiceImpl;
+import com.ediluana.minhasfinancas.service.impl.SaldoServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LancamentoServiceBenchmark {
+    // validar e a soma do saldo materializado (obterSaldoPorUsuario com o cache desligado)
+
+    private LancamentoServiceImpl service;
+    private Lancamento valido;
+
+    @Setup
+    public void preparar() {
+        List<SaldoUsuario> saldos = new ArrayList<>(); // uma linha por tipo e status, como no banco
+        for (TipoLancamento tipo : TipoLancamento.values()) {
+            for (StatusLancamento status : StatusLancamento.values()) {
+                saldos.add(SaldoUsuario.builder().idUsuario(1L).tipo(tipo).status(status).valor(new BigDecimal("12345.67")).build());
+            }
+        }
+        SaldoUsuarioRepository repository = DadosBenchmark.duble(SaldoUsuarioRepository.class, Map.of("findByIdUsuario", saldos));
+        LancamentoCache cache = new LancamentoCache(false, 1, Duration.ofMinutes(1), new VersaoLancamentos(null), new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class)); // desligado: a versao nunca eh lida
+
+        service = new LancamentoServiceImpl(null, new SaldoServiceImpl(repository, null, null), null, cache, null, null);
+        valido = DadosBenchmark.lancamentos(1).get(0);
+    }
+
+    @Benchmark
+    public Lancamento validar() {
+        service.validar(valido);
+        return valido;
+    }
+
+    @Benchmark
+    public BigDecimal obterSaldoPorUsuario() {
+        return service.obterSaldoPorUsuario(1L);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ediluana.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AtualizaStatusLoteDTO {
+
+    private Long usuario;
+    private String status;
+    private List<Long> ids; // ou filtro por ano/mes
+    private Integer ano;
+    private Integer mes;
+
+}
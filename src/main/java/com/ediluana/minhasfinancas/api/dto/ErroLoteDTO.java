@@ -0,0 +1,15 @@
+package com.ediluana.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ErroLoteDTO {
+
+    private Integer indice; // posicao do item na lista enviada
+    private String mensagem;
+
+}
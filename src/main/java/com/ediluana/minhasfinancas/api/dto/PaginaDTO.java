@@ -0,0 +1,15 @@
+package com.ediluana.minhasfinancas.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PaginaDTO<T> {
+
+    private List<T> conteudo;
+    private String proximo; // cursor da proxima pagina, nulo na ultima
+
+}
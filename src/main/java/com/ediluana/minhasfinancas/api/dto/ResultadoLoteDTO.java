@@ -0,0 +1,17 @@
+package com.ediluana.minhasfinancas.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ResultadoLoteDTO {
+
+    private Integer recebidos;
+    private Integer salvos;
+    private List<Long> ids; // na ordem dos itens salvos
+    private List<ErroLoteDTO> erros;
+
+}
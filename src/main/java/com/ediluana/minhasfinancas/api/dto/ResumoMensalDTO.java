@@ -0,0 +1,19 @@
+package com.ediluana.minhasfinancas.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class ResumoMensalDTO {
+
+    private Integer ano;
+    private Integer mes;
+    private String tipo;
+    private String status;
+    private BigDecimal total;
+    private Long quantidade;
+
+}
@@ -0,0 +1,27 @@
+package com.ediluana.minhasfinancas.api.resource;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+final class Acesso {
+    // o usuario do token (atributo posto pelo TokenAutenticacaoFilter) so le e grava os proprios dados
+    // sem token (minhasfinancas.token.obrigatorio=false) nao ha com o que comparar e a requisicao segue como antes
+
+    static final String MENSAGEM_PROIBIDO = "O token informado não pertence ao usuário da requisição.";
+
+    private Acesso() {
+    }
+
+    static boolean negado(Long autenticado, Long idUsuario) {
+        return autenticado != null && !autenticado.equals(idUsuario);
+    }
+
+    static boolean negado(Long autenticado, Lancamento lancamento) {
+        return negado(autenticado, lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId()); // id do proxy, sem select do usuario
+    }
+
+    static ResponseEntity<Object> proibido() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(MENSAGEM_PROIBIDO);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ediluana.minhasfinancas.api.resource;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+final class Etags {
+    // GET condicional: ETag = versao dos lancamentos do usuario + consulta + Accept; If-None-Match igual responde 304 sem consultar
+    // fraco (W/): o Tomcat nao comprime resposta com ETag forte, e o gzip eh o que reduz as listas; o If-None-Match compara fraco de todo modo
+    // o mesmo recurso sai em json, smile ou cbor conforme o Accept: cada formato tem o seu ETag e a resposta leva Vary: Accept
+
+    private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate(); // dado por usuario, sempre revalida
+
+    private Etags() {
+    }
+
+    static String de(WebRequest requisicao, long versao, Object... consulta) {
+        return "W/\"" + Long.toString(versao, 36) + "-" + Integer.toHexString(Arrays.hashCode(consulta)) + "-" + Integer.toHexString(formato(requisicao).hashCode()) + "\"";
+    }
+
+    static ResponseEntity<Object> responder(WebRequest requisicao, String etag, Supplier<?> corpo) {
+        if (requisicao.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDAR).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDAR).varyBy(HttpHeaders.ACCEPT).body(corpo.get());
+    }
+
+    private static String formato(WebRequest requisicao) { // o Accept que a negociacao usa, sem espacos nem caixa
+        String aceita = requisicao.getHeader(HttpHeaders.ACCEPT);
+        return aceita == null ? "" : aceita.replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,29 +1,55 @@
 package com.ediluana.minhasfinancas.api.resource;
 
 import com.ediluana.minhasfinancas.api.dto.AtualizaStatusDTO;
+import com.ediluana.minhasfinancas.api.dto.AtualizaStatusLoteDTO;
+import com.ediluana.minhasfinancas.api.dto.ErroLoteDTO;
 import com.ediluana.minhasfinancas.api.dto.LancamentoDTO;
+import com.ediluana.minhasfinancas.api.dto.PaginaDTO;
+import com.ediluana.minhasfinancas.api.dto.ResultadoLoteDTO;
+import com.ediluana.minhasfinancas.api.seguranca.TokenAutenticacaoFilter;
 import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
 import com.ediluana.minhasfinancas.model.entity.Lancamento;
 import com.ediluana.minhasfinancas.model.entity.Usuario;
 import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
 import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import com.ediluana.minhasfinancas.service.CursorLancamento;
 import com.ediluana.minhasfinancas.service.LancamentoService;
 import com.ediluana.minhasfinancas.service.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/lancamentos")
 public class LancamentoController {
 
+    private static final int LIMITE_PADRAO = 50;
+
+    private static final int TAMANHO_MAXIMO_LOTE = 10000;
+
     private final LancamentoService service;
     private final UsuarioService usuarioService;
+    private final ObjectMapper objectMapper;
 
     //        public LancamentoController(LancamentoService service, UsuarioService usuarioService) { // podendo adicionar final nas declarações e tbm adicionando
     //            // a anotation @RequiredArgsConstructor
@@ -33,27 +59,99 @@ public class LancamentoController {
 
     @GetMapping
     public ResponseEntity buscar( // podendo ser uma mapa de parametros
-                                  @RequestParam(value = "descricao", required = false) String descricao, @RequestParam(value = "mes", required = false) Integer mes, @RequestParam(value = "ano", required = false) Integer ano, @RequestParam("usuario") Long idUsuario) {
+                                  @RequestParam(value = "descricao", required = false) String descricao, @RequestParam(value = "mes", required = false) Integer mes, @RequestParam(value = "ano", required = false) Integer ano, @RequestParam("usuario") Long idUsuario,
+                                  @RequestParam(value = "limit", required = false) Integer limite, @RequestParam(value = "cursor", required = false) String cursor,
+                                  @RequestParam(value = "de", required = false) YearMonth de, @RequestParam(value = "ate", required = false) YearMonth ate, // yyyy-MM
+                                  @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado, WebRequest requisicao) {
+
+        if (Acesso.negado(autenticado, idUsuario)) {
+            return Acesso.proibido();
+        }
 
         Lancamento lancamentoFiltro = new Lancamento();
         lancamentoFiltro.setDescricao(descricao);
         lancamentoFiltro.setMes(mes);
         lancamentoFiltro.setAno(ano);
+        lancamentoFiltro.setCompetenciaDe(de); // periodo pela competencia (mes/ano), meses inclusivos
+        lancamentoFiltro.setCompetenciaAte(ate);
 
-        Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
-        if (!usuario.isPresent()) {
+        if (!usuarioService.existe(idUsuario)) {
             return ResponseEntity.badRequest().body("Não possível realizar a consulta. Usuário não encontrado para o Id informado");
 
         } else {
-            lancamentoFiltro.setUsuario(usuario.get());
+            lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build()); // o filtro so usa o id
+        }
+
+        String etag = Etags.de(requisicao, service.obterVersao(idUsuario), "lancamentos", descricao, mes, ano, de, ate, limite, cursor); // versao lida antes da consulta
+
+        if (limite != null || cursor != null) { // paginado por cursor; sem limit/cursor mantem a lista completa
+            try {
+                CursorLancamento posicao = CursorLancamento.decodificar(cursor);
+                return Etags.responder(requisicao, etag, () -> {
+                    Slice<LancamentoResumido> pagina = service.buscar(lancamentoFiltro, posicao, limite == null ? LIMITE_PADRAO : limite);
+                    String proximo = pagina.hasNext() ? CursorLancamento.de(pagina.getContent().get(pagina.getNumberOfElements() - 1)).codificar() : null;
+                    return PaginaDTO.<LancamentoResumido>builder().conteudo(pagina.getContent()).proximo(proximo).build();
+                });
+            } catch (RegraNegocioException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+
+        try {
+            return Etags.responder(requisicao, etag, () -> service.buscar(lancamentoFiltro)); // projecao: sem entidades nem usuario repetido por linha
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
-        return ResponseEntity.ok(lancamentos);
 
     }
 
+    @GetMapping("/export") // exporta o historico inteiro sem montar a lista em memoria
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam("usuario") Long idUsuario, @RequestParam(value = "format", defaultValue = "csv") String formato,
+                                                          @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
+        // o tipo declarado eh o que escolhe o handler de streaming: com ResponseEntity cru o corpo ia para os conversores e falhava com text/csv
+        if (Acesso.negado(autenticado, idUsuario)) {
+            return recusarExportacao(HttpStatus.FORBIDDEN, Acesso.MENSAGEM_PROIBIDO);
+        }
+        boolean csv = "csv".equalsIgnoreCase(formato);
+        if (!csv && !"ndjson".equalsIgnoreCase(formato)) {
+            return recusarExportacao(HttpStatus.BAD_REQUEST, "Formato inválido. Informe csv ou ndjson.");
+        }
+        if (!usuarioService.existe(idUsuario)) {
+            return recusarExportacao(HttpStatus.BAD_REQUEST, "Não possível realizar a exportação. Usuário não encontrado para o Id informado");
+        }
+
+        StreamingResponseBody corpo = saida -> { // roda fora da thread da requisicao; cada linha vai direto para a resposta
+            Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+            if (csv) {
+                writer.write("id,descricao,mes,ano,valor,tipo,status\n");
+            }
+            service.percorrer(idUsuario, lancamento -> {
+                try {
+                    writer.write(csv ? linhaCsv(lancamento) : linhaNdjson(lancamento));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"lancamentos." + (csv ? "csv" : "ndjson") + "\"")
+                .body(corpo);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> recusarExportacao(HttpStatus status, String mensagem) { // o status vai antes do corpo, como nos demais erros
+        return ResponseEntity.status(status)
+                .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+                .body(saida -> saida.write(mensagem.getBytes(StandardCharsets.UTF_8)));
+    }
+
     @PostMapping // criar recurso / servidor que ainda não foi criado
-    public ResponseEntity salvar(@RequestBody LancamentoDTO dto) {
+    public ResponseEntity salvar(@RequestBody LancamentoDTO dto, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
+        if (Acesso.negado(autenticado, dto.getUsuario())) {
+            return Acesso.proibido();
+        }
         try {
             Lancamento entidade = converter(dto);
             entidade = service.salvar(entidade);
@@ -63,9 +161,46 @@ public class LancamentoController {
         }
     }
 
+    @PostMapping("/lote") // varios lancamentos numa requisicao, gravados com insert em batch
+    public ResponseEntity salvarEmLote(@RequestBody List<LancamentoDTO> dtos, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
+        if (dtos.size() > TAMANHO_MAXIMO_LOTE) {
+            return ResponseEntity.badRequest().body("Envie no máximo " + TAMANHO_MAXIMO_LOTE + " lançamentos por lote.");
+        }
+        if (dtos.stream().anyMatch(dto -> Acesso.negado(autenticado, dto.getUsuario()))) { // o lote inteiro eh recusado, nao vira erro por item
+            return Acesso.proibido();
+        }
+
+        List<Lancamento> validos = new ArrayList<>();
+        List<ErroLoteDTO> erros = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            try {
+                if (dtos.get(i).getId() != null) { // persist de entidade com id falharia o lote inteiro
+                    throw new RegraNegocioException("O lote cadastra apenas lançamentos novos; não informe o Id.");
+                }
+                Lancamento lancamento = converter(dtos.get(i));
+                service.validar(lancamento);
+                validos.add(lancamento);
+            } catch (RegraNegocioException | IllegalArgumentException e) { // IllegalArgumentException: tipo ou status inexistente
+                erros.add(new ErroLoteDTO(i, e.getMessage()));
+            }
+        }
+
+        List<Lancamento> salvos = validos.isEmpty() ? List.of() : service.salvarEmLote(validos);
+        ResultadoLoteDTO resultado = ResultadoLoteDTO.builder().recebidos(dtos.size()).salvos(salvos.size())
+                .ids(salvos.stream().map(Lancamento::getId).collect(Collectors.toList())).erros(erros).build();
+
+        if (salvos.isEmpty() && !erros.isEmpty()) {
+            return ResponseEntity.badRequest().body(resultado);
+        }
+        return new ResponseEntity(resultado, erros.isEmpty() ? HttpStatus.CREATED : HttpStatus.OK); // 200: parte dos itens com erro
+    }
+
     @PutMapping("{id}") // atualizar recurso que esta no servidor passando valor // return created ou ok
-    public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto) {
+    public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
         return service.obterPorId(id).map(entity -> { // lancamento encontrado
+            if (Acesso.negado(autenticado, entity) || Acesso.negado(autenticado, dto.getUsuario())) { // nem alterar o de outro nem passar o proprio para outro
+                return Acesso.proibido();
+            }
             try {
                 Lancamento lancamento = converter(dto);
                 lancamento.setId(entity.getId());
@@ -78,8 +213,11 @@ public class LancamentoController {
     }
 
     @PutMapping("{id}/atualiza-status")
-    public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto) {
+    public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
         return service.obterPorId(id).map(entity -> {
+            if (Acesso.negado(autenticado, entity)) {
+                return Acesso.proibido();
+            }
             StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
 
             if (statusSelecionado == null) {
@@ -97,15 +235,72 @@ public class LancamentoController {
         }).orElseGet(() -> new ResponseEntity("Lançamento não encontrado na base de Dados.", HttpStatus.BAD_REQUEST)); //se não
     }
 
+    @PutMapping("/atualiza-status") // muitos lancamentos num unico update
+    public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDTO dto, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
+        if (Acesso.negado(autenticado, dto.getUsuario())) {
+            return Acesso.proibido();
+        }
+        if (!usuarioService.existe(dto.getUsuario())) {
+            return ResponseEntity.badRequest().body("Não foi possível atualizar os lançamentos. Usuário não encontrado para o Id informado");
+        }
+
+        StatusLancamento statusSelecionado;
+        try {
+            statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return ResponseEntity.badRequest().body("Não foi possível atualizar o status dos lançamentos, envie um status válido.");
+        }
+
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(dto.getUsuario()).build());
+        filtro.setAno(dto.getAno());
+        filtro.setMes(dto.getMes());
+
+        try {
+            int atualizados = service.atualizarStatusEmLote(filtro, dto.getIds(), statusSelecionado);
+            return ResponseEntity.ok(atualizados);
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("{id}")
-    public ResponseEntity deletar(@PathVariable("id") Long id) {
+    public ResponseEntity deletar(@PathVariable("id") Long id, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
         return service.obterPorId(id).map(entidade -> {
+            if (Acesso.negado(autenticado, entidade)) {
+                return Acesso.proibido();
+            }
             service.deletar(entidade);
             return new ResponseEntity(HttpStatus.NO_CONTENT); //não precisa retornar
         }).orElseGet(() -> new ResponseEntity("Lançamento não encontrado na base de Dados.", HttpStatus.BAD_REQUEST)); //se não
     }
 
-    private Lancamento converter(LancamentoDTO dto) {
+    private String linhaCsv(Lancamento lancamento) {
+        return lancamento.getId() + "," + campoCsv(lancamento.getDescricao()) + "," + lancamento.getMes() + "," + lancamento.getAno() + ","
+                + (lancamento.getValor() == null ? "" : lancamento.getValor().toPlainString()) + ","
+                + (lancamento.getTipo() == null ? "" : lancamento.getTipo().name()) + ","
+                + (lancamento.getStatus() == null ? "" : lancamento.getStatus().name()) + "\n";
+    }
+
+    private String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return "\"" + valor.replace("\"", "\"\"") + "\""; // RFC 4180
+    }
+
+    private String linhaNdjson(Lancamento lancamento) throws IOException {
+        LancamentoDTO dto = LancamentoDTO.builder().id(lancamento.getId()).descricao(lancamento.getDescricao()).mes(lancamento.getMes())
+                .ano(lancamento.getAno()).valor(lancamento.getValor()).usuario(lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId())
+                .tipo(lancamento.getTipo() == null ? null : lancamento.getTipo().name())
+                .status(lancamento.getStatus() == null ? null : lancamento.getStatus().name()).build();
+        return objectMapper.writeValueAsString(dto) + "\n";
+    }
+
+    Lancamento converter(LancamentoDTO dto) { // visivel no pacote para o benchmark JMH
         Lancamento lancamento = new Lancamento();
         lancamento.setId(dto.getId());
         lancamento.setDescricao(dto.getDescricao());
@@ -113,7 +308,7 @@ public class LancamentoController {
         lancamento.setMes(dto.getMes());
         lancamento.setValor(dto.getValor());
 
-        Usuario usuario = usuarioService.obterPorId(dto.getUsuario()).orElseThrow(() -> new RegraNegocioException("Usuário não encontrado para o Id informado"));
+        Usuario usuario = usuarioService.obterReferencia(dto.getUsuario()); // existencia em cache + proxy, sem select do usuario
 
         lancamento.setUsuario(usuario);
 
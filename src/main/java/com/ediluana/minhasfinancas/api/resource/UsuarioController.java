@@ -1,18 +1,28 @@
 package com.ediluana.minhasfinancas.api.resource;
 
+import com.ediluana.minhasfinancas.api.dto.ResumoMensalDTO;
+import com.ediluana.minhasfinancas.api.dto.UsuarioAutenticadoDTO;
 import com.ediluana.minhasfinancas.api.dto.UsuarioDTO;
+import com.ediluana.minhasfinancas.api.seguranca.TokenAutenticacaoFilter;
 import com.ediluana.minhasfinancas.excepition.ErroAutenticacao;
 import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
+import com.ediluana.minhasfinancas.model.entity.ResumoMensal;
 import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.service.DashboardService;
 import com.ediluana.minhasfinancas.service.LancamentoService;
+import com.ediluana.minhasfinancas.service.ResumoService;
+import com.ediluana.minhasfinancas.service.SaldoService;
+import com.ediluana.minhasfinancas.service.TokenService;
 import com.ediluana.minhasfinancas.service.UsuarioService;
+import com.ediluana.minhasfinancas.service.limite.LimitadorRequisicoes;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController // Juncao de @Controller e @ResponseBody (diz que todos os metodos com return são corpo da resposta
 @RequiredArgsConstructor
@@ -22,6 +32,11 @@ public class UsuarioController {
 
     private final UsuarioService service;
     private final LancamentoService lancamentoService;
+    private final SaldoService saldoService;
+    private final ResumoService resumoService;
+    private final TokenService tokenService;
+    private final LimitadorRequisicoes limitador;
+    private final DashboardService dashboardService;
 
     //    @GetMapping("/") //mapeando método para requisicao com metodo get para url ""
     //    public String helloWorld() {
@@ -34,9 +49,19 @@ public class UsuarioController {
 
     @PostMapping("/autenticar") //dá erro se estiver o msm
     public ResponseEntity autenticar(@RequestBody UsuarioDTO dto) {
+        String email = dto.getEmail() == null ? null : dto.getEmail().trim().toLowerCase();
+        long espera = limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_EMAIL, email); // o limite por ip ja passou no filtro
+        if (espera > 0) {
+            long segundos = LimitadorRequisicoes.segundos(espera);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, String.valueOf(segundos))
+                    .body("Muitas tentativas para este email. Tente novamente em " + segundos + " segundos.");
+        }
+
         try {
             Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-            return ResponseEntity.ok(usuarioAutenticado); // 200 operação realizada com sucesso
+            UsuarioAutenticadoDTO autenticado = UsuarioAutenticadoDTO.builder().id(usuarioAutenticado.getId()).nome(usuarioAutenticado.getNome())
+                    .email(usuarioAutenticado.getEmail()).token(tokenService.gerar(usuarioAutenticado.getId())).build();
+            return ResponseEntity.ok(autenticado); // 200 operação realizada com sucesso
         } catch (ErroAutenticacao e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -56,14 +81,91 @@ public class UsuarioController {
     }
 
     @GetMapping("{id}/saldo")
-    public ResponseEntity obterSaldo(@PathVariable("id") Long id) {
-        Optional<Usuario> usuario = service.obterPorId(id);
+    public ResponseEntity obterSaldo(@PathVariable("id") Long id, WebRequest requisicao, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
+        if (Acesso.negado(autenticado, id)) {
+            return Acesso.proibido();
+        }
+        if (!service.existe(id)) { // ids confirmados ficam em cache: o 304 sai so com a leitura da versao
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+
+        String etag = Etags.de(requisicao, lancamentoService.obterVersao(id), "saldo");
+        return Etags.responder(requisicao, etag, () -> lancamentoService.obterSaldoPorUsuario(id));
+    }
+
+    @GetMapping("{id}/dashboard") // saldo, lancamentos do mes e pendentes numa requisicao; partes lentas voltam em indisponiveis
+    public ResponseEntity obterDashboard(@PathVariable("id") Long id, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
+        if (Acesso.negado(autenticado, id)) {
+            return Acesso.proibido();
+        }
+        if (!service.existe(id)) {
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+
+        return ResponseEntity.ok(dashboardService.obter(id));
+    }
+
+    @GetMapping("{id}/saldo/verificar") // confere o saldo materializado com os lancamentos
+    public ResponseEntity verificarSaldo(@PathVariable("id") Long id, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
+        if (Acesso.negado(autenticado, id)) {
+            return Acesso.proibido();
+        }
+        if (!service.obterPorId(id).isPresent()) {
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+
+        return ResponseEntity.ok(saldoService.verificar(id));
+    }
 
-        if (!usuario.isPresent()) {
+    @PostMapping("{id}/saldo/reconstruir") // recalcula o saldo materializado a partir dos lancamentos
+    public ResponseEntity reconstruirSaldo(@PathVariable("id") Long id, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
+        if (Acesso.negado(autenticado, id)) {
+            return Acesso.proibido();
+        }
+        if (!service.obterPorId(id).isPresent()) {
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+
+        saldoService.reconstruir(id);
+        return ResponseEntity.ok(saldoService.obterSaldo(id));
+    }
+
+    @GetMapping("{id}/resumo") // totais por ano, mes, tipo e status lidos do resumo mensal
+    public ResponseEntity obterResumo(@PathVariable("id") Long id,
+                                      @RequestParam(value = "anoInicial", required = false) Integer anoInicial,
+                                      @RequestParam(value = "anoFinal", required = false) Integer anoFinal,
+                                      WebRequest requisicao,
+                                      @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
+        if (Acesso.negado(autenticado, id)) {
+            return Acesso.proibido();
+        }
+        if (!service.existe(id)) { // mesmo caminho do saldo: o 304 sai so com a leitura da versao
             return new ResponseEntity(HttpStatus.NOT_FOUND);
         }
 
-        BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
-        return ResponseEntity.ok(saldo);
+        String etag = Etags.de(requisicao, lancamentoService.obterVersao(id), "resumo", anoInicial, anoFinal); // o resumo muda junto com os lancamentos, como o saldo
+        try {
+            return Etags.responder(requisicao, etag, () -> resumoService.obterResumo(id, anoInicial, anoFinal).stream().map(this::converter).collect(Collectors.toList()));
+        } catch (RegraNegocioException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("{id}/resumo/reconstruir")
+    public ResponseEntity reconstruirResumo(@PathVariable("id") Long id, @RequestAttribute(value = TokenAutenticacaoFilter.ATRIBUTO_USUARIO, required = false) Long autenticado) {
+        if (Acesso.negado(autenticado, id)) {
+            return Acesso.proibido();
+        }
+        if (!service.obterPorId(id).isPresent()) {
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+
+        resumoService.reconstruir(id);
+        return new ResponseEntity(HttpStatus.NO_CONTENT);
+    }
+
+    private ResumoMensalDTO converter(ResumoMensal resumo) {
+        return ResumoMensalDTO.builder().ano(resumo.getAno()).mes(resumo.getMes()).tipo(resumo.getTipo().name())
+                .status(resumo.getStatus() == null ? null : resumo.getStatus().name()).total(resumo.getValor()).quantidade(resumo.getQuantidade()).build();
     }
 }
\ No newline at end of file
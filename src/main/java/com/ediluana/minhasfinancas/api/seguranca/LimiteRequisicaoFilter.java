@@ -0,0 +1,62 @@
+package com.ediluana.minhasfinancas.api.seguranca;
+
+import com.ediluana.minhasfinancas.service.limite.LimitadorRequisicoes;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10) // antes do token e de qualquer acesso ao banco
+public class LimiteRequisicaoFilter extends OncePerRequestFilter {
+    // limite por ip no login e nas escritas de lancamento; o limite por email do login fica no UsuarioController
+
+    private final LimitadorRequisicoes limitador;
+
+    public LimiteRequisicaoFilter(LimitadorRequisicoes limitador) {
+        this.limitador = limitador;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        LimitadorRequisicoes.Limite limite = limite(request);
+        if (limite != null) {
+            long espera = limitador.consumir(limite, request.getRemoteAddr());
+            if (espera > 0) {
+                recusar(response, espera);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private LimitadorRequisicoes.Limite limite(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        String metodo = request.getMethod();
+        if ("POST".equals(metodo) && caminho.equals("/api/usuarios/autenticar")) {
+            return LimitadorRequisicoes.Limite.LOGIN_IP;
+        }
+        boolean escrita = "POST".equals(metodo) || "PUT".equals(metodo) || "DELETE".equals(metodo);
+        if (escrita && caminho.startsWith("/api/lancamentos")) {
+            return LimitadorRequisicoes.Limite.ESCRITA_IP;
+        }
+        return null;
+    }
+
+    private void recusar(HttpServletResponse response, long esperaNanos) throws IOException {
+        long segundos = LimitadorRequisicoes.segundos(esperaNanos);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(("Muitas requisições. Tente novamente em " + segundos + " segundos.").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,64 @@
+package com.ediluana.minhasfinancas.api.seguranca;
+
+import com.ediluana.minhasfinancas.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class TokenAutenticacaoFilter extends OncePerRequestFilter {
+    // confere o token do header Authorization e deixa o id do usuario como atributo da requisicao
+
+    public static final String ATRIBUTO_USUARIO = "minhasfinancas.idUsuario";
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+    private final boolean obrigatorio;
+
+    public TokenAutenticacaoFilter(TokenService tokenService, @Value("${minhasfinancas.token.obrigatorio:true}") boolean obrigatorio) {
+        this.tokenService = tokenService;
+        this.obrigatorio = obrigatorio;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (header != null && header.startsWith(BEARER)) {
+            Long idUsuario = tokenService.validar(header.substring(BEARER.length()).trim());
+            if (idUsuario == null || idUsuario <= 0) { // id de usuario vem da sequence, sempre positivo
+                negar(response, "Token inválido ou expirado.");
+                return;
+            }
+            request.setAttribute(ATRIBUTO_USUARIO, idUsuario);
+        } else if (obrigatorio && !publico(request)) { // desligar a obrigatoriedade so para clientes antigos sem token: sem token nao ha dono para conferir
+            negar(response, "Informe o token de autenticação.");
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private boolean publico(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        boolean post = "POST".equals(request.getMethod());
+        return !caminho.startsWith("/api/") // actuator e afins
+                || (post && (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar"))); // cadastro e login
+    }
+
+    private void negar(HttpServletResponse response, String mensagem) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(mensagem.getBytes(StandardCharsets.UTF_8));
+    }
+}
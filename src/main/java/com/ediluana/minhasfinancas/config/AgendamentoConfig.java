@@ -0,0 +1,10 @@
+package com.ediluana.minhasfinancas.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+    // tarefas @Scheduled (ex.: particoes dos proximos anos em ParticoesLancamento) rodam fora das requisicoes
+}
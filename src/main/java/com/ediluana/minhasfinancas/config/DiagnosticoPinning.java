@@ -0,0 +1,75 @@
+package com.ediluana.minhasfinancas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "minhasfinancas.virtual.diagnostico-pinning", havingValue = "true")
+public class DiagnosticoPinning {
+    // loga as virtual threads presas na thread carregadora (synchronized/nativo durante bloqueio)
+    // o evento jdk.VirtualThreadPinned so existe no java 21+; em versoes anteriores nada eh registrado
+
+    private static final Logger log = LoggerFactory.getLogger(DiagnosticoPinning.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final int QUADROS_NO_LOG = 8;
+
+    private final Duration limiar;
+    private final MeterRegistry registry;
+    private RecordingStream stream;
+
+    public DiagnosticoPinning(@Value("${minhasfinancas.virtual.limiar-pinning:PT0.02S}") Duration limiar,
+                              ObjectProvider<MeterRegistry> registry) {
+        this.limiar = limiar;
+        this.registry = registry.getIfAvailable();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(limiar).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void registrar(RecordedEvent evento) {
+        List<RecordedFrame> quadros = evento.getStackTrace() == null ? List.of() : evento.getStackTrace().getFrames();
+        boolean transacional = quadros.stream().anyMatch(DiagnosticoPinning::transacional);
+        if (registry != null) {
+            registry.counter("minhasfinancas.virtual.pinning", "transacional", String.valueOf(transacional)).increment();
+        }
+        log.warn("Virtual thread presa por {} ms{}:\n\t{}", evento.getDuration().toMillis(),
+                transacional ? " dentro de metodo @Transactional" : "",
+                quadros.stream().limit(QUADROS_NO_LOG).map(DiagnosticoPinning::descrever).collect(Collectors.joining("\n\t")));
+    }
+
+    private static boolean transacional(RecordedFrame quadro) {
+        String tipo = quadro.getMethod().getType().getName();
+        return tipo.startsWith("org.springframework.transaction.") || tipo.startsWith("com.ediluana.minhasfinancas.service.impl.");
+    }
+
+    private static String descrever(RecordedFrame quadro) {
+        return quadro.getMethod().getType().getName() + "." + quadro.getMethod().getName() + ":" + quadro.getLineNumber();
+    }
+}
@@ -0,0 +1,122 @@
+package com.ediluana.minhasfinancas.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class EstatisticasSql {
+    // idas ao banco da requisicao corrente, alimentadas pelo EstatisticasSqlListener na thread da requisicao
+    // consultas feitas em outras threads (ex.: partes do dashboard) nao entram na conta
+    // formatos: quantas vezes cada sql normalizado (RepeticoesSqlInspector) foi preparado na requisicao
+
+    private static final ThreadLocal<EstatisticasSql> ATUAL = new ThreadLocal<>();
+
+    private final long limiteLentaNanos;
+    private int comandos;
+    private int lotes;
+    private int lentas;
+    private int conexoes;
+    private int flushes;
+    private long tempoNanos;
+    private long maisLentaNanos;
+    private final Map<String, Integer> formatos = new HashMap<>();
+    private String maisRepetido;
+    private int repeticoes;
+
+    EstatisticasSql(long limiteLentaNanos) {
+        this.limiteLentaNanos = limiteLentaNanos;
+    }
+
+    static EstatisticasSql iniciar(long limiteLentaNanos) {
+        EstatisticasSql estatisticas = new EstatisticasSql(limiteLentaNanos);
+        ATUAL.set(estatisticas);
+        return estatisticas;
+    }
+
+    static EstatisticasSql atual() {
+        return ATUAL.get();
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    void comando(long nanos) {
+        comandos++;
+        registrarTempo(nanos);
+    }
+
+    void lote(long nanos) {
+        lotes++;
+        registrarTempo(nanos);
+    }
+
+    void conexao() {
+        conexoes++;
+    }
+
+    void flush() {
+        flushes++;
+    }
+
+    void formato(String sql) {
+        int vezes = formatos.merge(sql, 1, Integer::sum);
+        if (vezes > repeticoes) {
+            repeticoes = vezes;
+            maisRepetido = sql;
+        }
+    }
+
+    private void registrarTempo(long nanos) {
+        tempoNanos += nanos;
+        maisLentaNanos = Math.max(maisLentaNanos, nanos);
+        if (nanos >= limiteLentaNanos) {
+            lentas++;
+        }
+    }
+
+    public int getIdasAoBanco() { // comando avulso ou lote em batch: uma ida cada
+        return comandos + lotes;
+    }
+
+    public int getComandos() {
+        return comandos;
+    }
+
+    public int getLotes() {
+        return lotes;
+    }
+
+    public int getLentas() {
+        return lentas;
+    }
+
+    public int getConexoes() {
+        return conexoes;
+    }
+
+    public int getFlushes() {
+        return flushes;
+    }
+
+    public long getTempoNanos() {
+        return tempoNanos;
+    }
+
+    public long getMaisLentaNanos() {
+        return maisLentaNanos;
+    }
+
+    public int getRepeticoes() { // vezes do sql mais repetido
+        return repeticoes;
+    }
+
+    public String getMaisRepetido() {
+        return maisRepetido;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sql=%d (comandos=%d lotes=%d) lentas=%d conexoes=%d flushes=%d tempo=%.1f ms mais lenta=%.1f ms repeticoes=%d",
+                getIdasAoBanco(), comandos, lotes, lentas, conexoes, flushes, tempoNanos / 1e6, maisLentaNanos / 1e6, repeticoes);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ediluana.minhasfinancas.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@Component
+public class EstatisticasSqlFilter extends OncePerRequestFilter {
+    // conta as idas ao banco de cada requisicao e avisa quando passa do orcamento (sinal de n+1) ou do tempo
+    // o resultado fica no atributo ATRIBUTO_ESTATISTICAS para os testes conferirem o orcamento por endpoint
+    // o mesmo formato de sql acima de repeticoes-maximas vezes na requisicao eh avisado como provavel n+1
+
+    public static final String ATRIBUTO_ESTATISTICAS = "minhasfinancas.estatisticasSql";
+
+    private static final Logger log = LoggerFactory.getLogger(EstatisticasSqlFilter.class);
+
+    private final boolean habilitado;
+    private final int orcamento;
+    private final int repeticoesMaximas;
+    private final long limiteLentaNanos;
+    private final long limiteRequisicaoNanos;
+
+    public EstatisticasSqlFilter(@Value("${minhasfinancas.sql.estatisticas.habilitado:true}") boolean habilitado,
+                                 @Value("${minhasfinancas.sql.orcamento-por-requisicao:20}") int orcamento,
+                                 @Value("${minhasfinancas.sql.repeticoes-maximas:3}") int repeticoesMaximas,
+                                 @Value("${minhasfinancas.sql.consulta-lenta:PT0.2S}") Duration consultaLenta,
+                                 @Value("${minhasfinancas.sql.requisicao-lenta:PT0.5S}") Duration requisicaoLenta) {
+        this.habilitado = habilitado;
+        this.orcamento = orcamento;
+        this.repeticoesMaximas = repeticoesMaximas;
+        this.limiteLentaNanos = consultaLenta.toNanos();
+        this.limiteRequisicaoNanos = requisicaoLenta.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        EstatisticasSql estatisticas = EstatisticasSql.iniciar(limiteLentaNanos);
+        request.setAttribute(ATRIBUTO_ESTATISTICAS, estatisticas);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            EstatisticasSql.encerrar();
+            registrar(request, estatisticas);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, EstatisticasSql estatisticas) {
+        if (estatisticas.getRepeticoes() > repeticoesMaximas) {
+            log.warn("{} {}: provavel n+1, o mesmo sql {} vezes (maximo {}): {}", request.getMethod(), request.getRequestURI(),
+                    estatisticas.getRepeticoes(), repeticoesMaximas, estatisticas.getMaisRepetido());
+        }
+        if (estatisticas.getIdasAoBanco() > orcamento || estatisticas.getLentas() > 0 || estatisticas.getTempoNanos() > limiteRequisicaoNanos) {
+            log.warn("{} {}: {} (orcamento {})", request.getMethod(), request.getRequestURI(), estatisticas, orcamento);
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} {}: {}", request.getMethod(), request.getRequestURI(), estatisticas);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ediluana.minhasfinancas.config;
+
+import org.hibernate.SessionEventListener;
+
+public class EstatisticasSqlListener implements SessionEventListener {
+    // registrado em hibernate.session.events.auto: o hibernate cria um por sessao com o construtor sem argumentos
+
+    private long inicioComando;
+    private long inicioLote;
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        EstatisticasSql estatisticas = EstatisticasSql.atual();
+        if (estatisticas != null) {
+            estatisticas.conexao();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicioComando = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        EstatisticasSql estatisticas = EstatisticasSql.atual();
+        if (estatisticas != null) {
+            estatisticas.comando(System.nanoTime() - inicioComando);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicioLote = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        EstatisticasSql estatisticas = EstatisticasSql.atual();
+        if (estatisticas != null) {
+            estatisticas.lote(System.nanoTime() - inicioLote);
+        }
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        EstatisticasSql estatisticas = EstatisticasSql.atual();
+        if (estatisticas != null) {
+            estatisticas.flush();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ediluana.minhasfinancas.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "minhasfinancas.banco.limite-conexoes.habilitado", havingValue = "true")
+public class LimiteConexoesConfig {
+    // perfil "virtual": sem limite de threads no tomcat, o semaforo passa a ser o limite de concorrencia no banco
+    // so o DataSource principal (o do pool da aplicacao): outro DataSource tem pool proprio e nao divide as permissoes
+
+    static final String DATA_SOURCE_PADRAO = "dataSource"; // nome do bean registrado pelo DataSourceAutoConfiguration
+
+    @Bean
+    public static BeanPostProcessor limiteConexoesDataSource(Environment env, ConfigurableListableBeanFactory beanFactory) {
+        int permissoes = env.getProperty("minhasfinancas.banco.limite-conexoes.permissoes", Integer.class, 10);
+        Duration espera = env.getProperty("minhasfinancas.banco.limite-conexoes.espera", Duration.class, Duration.ofSeconds(30));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LimiteConexoesDataSource) && principal(beanFactory, beanName)) {
+                    return new LimiteConexoesDataSource(dataSource, permissoes, espera);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static boolean principal(ConfigurableListableBeanFactory beanFactory, String beanName) {
+        if (beanFactory.containsBeanDefinition(beanName) && beanFactory.getBeanDefinition(beanName).isPrimary()) {
+            return true;
+        }
+        return DATA_SOURCE_PADRAO.equals(beanName);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ediluana.minhasfinancas.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class LimiteConexoesDataSource extends DelegatingDataSource {
+    // no maximo N conexoes emprestadas ao mesmo tempo; a permissao volta no close() da conexao
+    // com virtual threads milhares de requisicoes esperam aqui (Semaphore nao prende a thread carregadora)
+    // em vez de disputar o pool
+
+    private final Semaphore permissoes;
+    private final long esperaNanos;
+
+    public LimiteConexoesDataSource(DataSource alvo, int permissoes, Duration espera) {
+        super(alvo);
+        this.permissoes = new Semaphore(permissoes, true); // justo: ordem de chegada
+        this.esperaNanos = espera.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    public int disponiveis() {
+        return permissoes.availablePermits();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Limite de conexões com o banco atingido; espera de " + Duration.ofNanos(esperaNanos) + " esgotada.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão com o banco.", e);
+        }
+    }
+
+    private Connection liberarAoFechar(Connection conexao) {
+        AtomicBoolean fechada = new AtomicBoolean(); // close() repetido devolve a permissao uma vez so
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, metodo, args) -> {
+            if ("close".equals(metodo.getName()) && fechada.compareAndSet(false, true)) {
+                try {
+                    conexao.close();
+                } finally {
+                    permissoes.release();
+                }
+                return null;
+            }
+            if ("close".equals(metodo.getName())) {
+                return null;
+            }
+            try {
+                return metodo.invoke(conexao, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.ediluana.minhasfinancas.config;
+
+import com.ediluana.minhasfinancas.excepition.ErroAutenticacao;
+import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+@ConditionalOnProperty(name = "minhasfinancas.metricas.habilitado", havingValue = "true", matchIfMissing = true)
+public class MetricasAspect {
+    // tempo de cada metodo publico dos controllers e servicos (minhasfinancas.metodo), erros de negocio por tipo
+    // (minhasfinancas.erros) e linhas devolvidas pelas consultas dos servicos (minhasfinancas.linhas)
+    // repositorios ja sao medidos pelo spring data (spring.data.repository.invocations)
+
+    static final String TEMPO = "minhasfinancas.metodo";
+    static final String ERROS = "minhasfinancas.erros";
+    static final String LINHAS = "minhasfinancas.linhas";
+
+    private final MeterRegistry registry;
+    private final Map<Method, Medidores> medidores = new ConcurrentHashMap<>(); // evita montar tags e procurar o meter a cada chamada
+
+    public MetricasAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.ediluana.minhasfinancas.api.resource..*(..))")
+    public Object medirController(ProceedingJoinPoint ponto) throws Throwable {
+        return medir(ponto, "controller", false);
+    }
+
+    @Around("execution(public * com.ediluana.minhasfinancas.service.impl..*(..))")
+    public Object medirServico(ProceedingJoinPoint ponto) throws Throwable {
+        return medir(ponto, "servico", true); // erros contados so aqui: a excecao de negocio nasce no servico
+    }
+
+    private Object medir(ProceedingJoinPoint ponto, String camada, boolean contarErros) throws Throwable {
+        Method metodo = ((MethodSignature) ponto.getSignature()).getMethod();
+        Medidores medidor = medidores.computeIfAbsent(metodo, m -> new Medidores(camada, ponto.getSignature().getDeclaringType().getSimpleName(), m.getName()));
+        long inicio = System.nanoTime();
+        try {
+            Object resultado = ponto.proceed();
+            medidor.sucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            medidor.linhas(resultado);
+            return resultado;
+        } catch (Throwable e) {
+            medidor.falha(e, System.nanoTime() - inicio, contarErros);
+            throw e;
+        }
+    }
+
+    private final class Medidores {
+
+        private final String camada;
+        private final String classe;
+        private final String metodo;
+        private final Timer sucesso;
+        private volatile DistributionSummary linhas;
+
+        Medidores(String camada, String classe, String metodo) {
+            this.camada = camada;
+            this.classe = classe;
+            this.metodo = metodo;
+            this.sucesso = timer("none");
+        }
+
+        void linhas(Object resultado) {
+            int quantidade;
+            if (resultado instanceof Collection<?> colecao) {
+                quantidade = colecao.size();
+            } else if (resultado instanceof Slice<?> pagina) {
+                quantidade = pagina.getNumberOfElements();
+            } else {
+                return;
+            }
+            if (linhas == null) {
+                linhas = DistributionSummary.builder(LINHAS).baseUnit("rows").tags("classe", classe, "metodo", metodo).register(registry);
+            }
+            linhas.record(quantidade);
+        }
+
+        void falha(Throwable e, long nanos, boolean contarErros) {
+            String excecao = e.getClass().getSimpleName();
+            timer(excecao).record(nanos, TimeUnit.NANOSECONDS);
+            if (contarErros) {
+                Counter.builder(ERROS).tags("excecao", excecao, "negocio", String.valueOf(e instanceof RegraNegocioException || e instanceof ErroAutenticacao),
+                        "classe", classe, "metodo", metodo).register(registry).increment();
+            }
+        }
+
+        private Timer timer(String excecao) {
+            return Timer.builder(TEMPO).tags("camada", camada, "classe", classe, "metodo", metodo, "excecao", excecao).register(registry);
+        }
+    }
+}
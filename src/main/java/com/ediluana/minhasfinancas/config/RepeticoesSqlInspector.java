@@ -0,0 +1,32 @@
+package com.ediluana.minhasfinancas.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.regex.Pattern;
+
+public class RepeticoesSqlInspector implements StatementInspector {
+    // registrado em hibernate.session_factory.statement_inspector: ve cada sql antes de ser preparado
+    // o mesmo formato de sql repetido na requisicao (ex.: um select do usuario por linha) eh o desenho de um n+1
+    // so conta: devolve o sql sem alterar
+
+    private static final Pattern TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERO = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTA = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    @Override
+    public String inspect(String sql) {
+        EstatisticasSql estatisticas = EstatisticasSql.atual();
+        if (estatisticas != null) {
+            estatisticas.formato(formato(sql));
+        }
+        return sql;
+    }
+
+    static String formato(String sql) { // literais viram ? e in (?, ?, ?) vira in (?): muda o valor, o formato eh o mesmo
+        String formato = TEXTO.matcher(sql).replaceAll("?");
+        formato = NUMERO.matcher(formato).replaceAll("?");
+        formato = LISTA.matcher(formato).replaceAll("(?)");
+        return ESPACOS.matcher(formato).replaceAll(" ").trim();
+    }
+}
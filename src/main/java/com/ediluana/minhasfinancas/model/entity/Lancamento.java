@@ -2,45 +2,78 @@ package com.ediluana.minhasfinancas.model.entity;
 
 import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
 import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.util.Texto;
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
-import java.util.Calendar;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
 
 @Entity
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "lancamento", schema = "financas")
+@Table(name = "lancamento", schema = "financas", indexes = {
+        @Index(name = "idx_lancamento_usuario_ano_mes_id", columnList = "id_usuario, ano, mes, id"), // filtros por periodo e paginacao por chave
+        @Index(name = "idx_lancamento_usuario_tipo_status", columnList = "id_usuario, tipo, status"),
+        @Index(name = "idx_lancamento_usuario_competencia", columnList = "id_usuario, competencia, id")}) // periodo de/ate num unico range scan
 public class Lancamento {
+    // o indice da busca por prefixo da descricao depende do banco e vem de IndicePrefixoDescricao
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq") // identity desligaria o batch de inserts do hibernate
+    @SequenceGenerator(name = "lancamento_seq", sequenceName = "lancamento_seq", schema = "financas", allocationSize = 50) // otimizador pooled: 1 nextval a cada 50 ids
     private Long id;
 
     @Column(name = "descricao")
     private String descricao;
 
+    @JsonIgnore
+    @Column(name = "descricao_normalizada")
+    private String descricaoNormalizada; // preenchida antes de gravar, ver preencherDerivados()
+
     @Column(name = "mes")
     private Integer mes;
 
     @Column(name = "ano")
     private Integer ano;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // o eager trazia o usuario junto de cada lancamento
     @JoinColumn(name = "id_usuario")
+    @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+    @JsonIdentityReference(alwaysAsId = true) // no json vai so o id, sem inicializar o proxy
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Usuario usuario;
 
     @Column(name = "valor")
     private BigDecimal valor;
 
-    @Column(name = "data_cadastro")
-    private Calendar dataCadastro;
+    @Column(name = "data_cadastro", updatable = false) // preenchida no insert; o update por merge nao apaga
+    private Instant dataCadastro;
+
+    @Column(name = "competencia")
+    private LocalDate competencia; // primeiro dia do mes/ano do lancamento, preenchida antes de gravar
+
+    @Transient
+    @JsonIgnore
+    private YearMonth competenciaDe; // so filtro de busca: mes inicial, inclusivo
+
+    @Transient
+    @JsonIgnore
+    private YearMonth competenciaAte; // so filtro de busca: mes final, inclusivo
 
     @Column(name = "tipo")
     @Enumerated(value = EnumType.STRING)
@@ -49,4 +82,18 @@ public class Lancamento {
     @Column(name = "status")
     @Enumerated(value = EnumType.STRING)
     private StatusLancamento status;
+
+    @PrePersist
+    void registrarCadastro() {
+        if (dataCadastro == null) {
+            dataCadastro = Instant.now();
+        }
+        preencherDerivados();
+    }
+
+    @PreUpdate
+    void preencherDerivados() {
+        descricaoNormalizada = Texto.normalizar(descricao);
+        competencia = ano != null && mes != null && mes >= 1 && mes <= 12 ? LocalDate.of(ano, mes, 1) : null;
+    }
 }
@@ -0,0 +1,51 @@
+package com.ediluana.minhasfinancas.model.entity;
+
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "resumo_mensal", schema = "financas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_resumo_mensal", columnNames = {"id_usuario", "ano", "mes", "tipo", "status"}),
+        indexes = @Index(name = "idx_resumo_mensal_usuario_ano_mes", columnList = "id_usuario, ano, mes"))
+public class ResumoMensal {
+    // totais por usuario, ano, mes, tipo e status, mantidos pelas escritas de lancamento
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "id_usuario", nullable = false)
+    private Long idUsuario;
+
+    @Column(name = "ano", nullable = false)
+    private Integer ano;
+
+    @Column(name = "mes", nullable = false)
+    private Integer mes;
+
+    @Column(name = "tipo", nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private StatusLancamento status; // lancamento sem status entra como PENDENTE, como no saldo
+
+    @Column(name = "valor", nullable = false)
+    private BigDecimal valor;
+
+    @Column(name = "quantidade", nullable = false)
+    private Long quantidade;
+
+}
@@ -0,0 +1,42 @@
+package com.ediluana.minhasfinancas.model.entity;
+
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "saldo_usuario", schema = "financas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_saldo_usuario_tipo_status", columnNames = {"id_usuario", "tipo", "status"}),
+        indexes = @Index(name = "idx_saldo_usuario_usuario", columnList = "id_usuario"))
+public class SaldoUsuario {
+    // total materializado por usuario, tipo e status, mantido pelas escritas de lancamento
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "id_usuario", nullable = false)
+    private Long idUsuario; // somente o id, evita carregar o usuario a cada movimentacao
+
+    @Column(name = "tipo", nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private StatusLancamento status; // lancamento sem status entra como PENDENTE: nulo escaparia da chave unica no postgres
+
+    @Column(name = "valor", nullable = false)
+    private BigDecimal valor;
+
+}
@@ -12,7 +12,8 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "usuario", schema = "financas")
+@Table(name = "usuario", schema = "financas", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_usuario_email", columnNames = "email")}) // garante o email unico mesmo com cadastros concorrentes
 public class Usuario {
 
     @Id
@@ -30,4 +31,8 @@ public class Usuario {
     @JsonIgnore
     private String senha;
 
+    @Column(name = "versao_lancamentos", insertable = false, updatable = false) // so o update do UsuarioRepository escreve: salvar o usuario nao volta a versao
+    @JsonIgnore
+    private Long versaoLancamentos;
+
 }
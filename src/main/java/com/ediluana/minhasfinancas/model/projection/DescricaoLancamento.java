@@ -0,0 +1,9 @@
+package com.ediluana.minhasfinancas.model.projection;
+
+public interface DescricaoLancamento {
+
+    Long getId();
+
+    String getDescricao();
+
+}
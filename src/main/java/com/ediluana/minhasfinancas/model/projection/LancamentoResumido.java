@@ -0,0 +1,12 @@
+package com.ediluana.minhasfinancas.model.projection;
+
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public record LancamentoResumido(Long id, String descricao, Integer mes, Integer ano, BigDecimal valor,
+                                 TipoLancamento tipo, StatusLancamento status, Long usuario) {
+    // leitura da listagem: so as colunas exibidas, o usuario vai apenas pelo id (FK, sem join)
+
+}
@@ -0,0 +1,22 @@
+package com.ediluana.minhasfinancas.model.projection;
+
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public interface TotalMensal {
+
+    Integer getAno();
+
+    Integer getMes();
+
+    TipoLancamento getTipo();
+
+    StatusLancamento getStatus();
+
+    BigDecimal getTotal();
+
+    Long getQuantidade();
+
+}
@@ -0,0 +1,16 @@
+package com.ediluana.minhasfinancas.model.projection;
+
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public interface TotalPorTipoEStatus {
+
+    TipoLancamento getTipo();
+
+    StatusLancamento getStatus();
+
+    BigDecimal getTotal();
+
+}
@@ -0,0 +1,43 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Component
+public class IndiceDataCadastro {
+    // idx_lancamento_usuario_data_cadastro foi declarado em Lancamento e nenhuma consulta filtra por data_cadastro: so custava em cada insert
+    // o ddl-auto nao apaga indice; aqui ele sai uma vez, concurrently para nao bloquear as escritas
+    // tabela particionada nao aceita concurrently e nao tem o indice: a migracao db/particionar-lancamento.sql apaga a tabela antiga com ele
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceDataCadastro.class);
+
+    static final String REMOVER = "drop index concurrently if exists financas.idx_lancamento_usuario_data_cadastro";
+
+    private final DataSource dataSource;
+
+    public IndiceDataCadastro(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void remover() {
+        try (Connection conexao = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName()) || "p".equals(ParticoesLancamento.tipoTabela(conexao))) {
+                return; // H2 dos testes nasce do ddl-auto atual, sem o indice
+            }
+            try (Statement sql = conexao.createStatement()) { // concurrently nao roda dentro de transacao: conexao em autocommit
+                sql.execute(REMOVER);
+            }
+        } catch (SQLException e) {
+            log.warn("Nao foi possivel remover o indice sem uso idx_lancamento_usuario_data_cadastro; ele segue custando nos inserts.", e);
+        }
+    }
+}
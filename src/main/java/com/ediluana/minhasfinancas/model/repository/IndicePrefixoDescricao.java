@@ -0,0 +1,66 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Component
+public class IndicePrefixoDescricao {
+    // indice da busca por prefixo da descricao, um por banco (o @Index do jpa nao tem como declarar a classe de operadores):
+    // no PostgreSQL com collation diferente de C o btree comum nao atende like 'x%'; varchar_pattern_ops compara byte a byte e atende,
+    // e o btree comum (idx_lancamento_usuario_descricao, criado pelo @Index antigo) so custaria em cada insert: eh removido depois
+    // nos outros bancos (H2) a comparacao nao tem collation e o btree comum serve
+    // concurrently: nao bloqueia as escritas enquanto o indice eh construido na primeira subida
+    // tabela particionada nao aceita concurrently: nela o indice vem da migracao db/particionar-lancamento.sql e aqui nada eh feito
+
+    private static final Logger log = LoggerFactory.getLogger(IndicePrefixoDescricao.class);
+
+    static final String CRIAR = "create index concurrently if not exists idx_lancamento_usuario_descricao_prefixo"
+            + " on financas.lancamento (id_usuario, descricao_normalizada varchar_pattern_ops)";
+
+    static final String REMOVER_COMUM = "drop index concurrently if exists financas.idx_lancamento_usuario_descricao"; // depois do CRIAR: a busca nunca fica sem indice
+
+    static final String CRIAR_COMUM = "create index if not exists idx_lancamento_usuario_descricao on financas.lancamento (id_usuario, descricao_normalizada)";
+
+    private final DataSource dataSource;
+
+    public IndicePrefixoDescricao(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void criar() {
+        try (Connection conexao = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName())) {
+                criarComum(conexao);
+                return;
+            }
+            if ("p".equals(ParticoesLancamento.tipoTabela(conexao))) {
+                return;
+            }
+            criar(conexao);
+        } catch (SQLException e) {
+            log.warn("Nao foi possivel criar o indice de prefixo da descricao; a busca por descricao segue sem ele.", e);
+        }
+    }
+
+    static void criar(Connection conexao) throws SQLException {
+        try (Statement sql = conexao.createStatement()) { // concurrently nao roda dentro de transacao: conexao em autocommit
+            sql.execute(CRIAR);
+            sql.execute(REMOVER_COMUM);
+        }
+    }
+
+    static void criarComum(Connection conexao) throws SQLException {
+        try (Statement sql = conexao.createStatement()) {
+            sql.execute(CRIAR_COMUM);
+        }
+    }
+}
@@ -2,16 +2,48 @@ package com.ediluana.minhasfinancas.model.repository;
 
 import com.ediluana.minhasfinancas.model.entity.Lancamento;
 import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.DescricaoLancamento;
+import com.ediluana.minhasfinancas.model.projection.TotalMensal;
+import com.ediluana.minhasfinancas.model.projection.TotalPorTipoEStatus;
+import jakarta.persistence.QueryHint;
 import lombok.Value;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
 
     @Query(value = " select sum(l.valor) from Lancamento l join l.usuario u where u.id = :idUsuario and l.tipo = :tipo group by u")//jpql
     BigDecimal obterSaldoPorTipoLancamentoEUsuario(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo);
 
+    @Query(value = " select l.tipo as tipo, l.status as status, sum(l.valor) as total from Lancamento l where l.usuario.id = :idUsuario group by l.tipo, l.status") // recalcula o saldo a partir dos lancamentos
+    List<TotalPorTipoEStatus> obterTotaisPorTipoEStatus(@Param("idUsuario") Long idUsuario);
+
+    @Query(value = " select l.ano as ano, l.mes as mes, l.tipo as tipo, l.status as status, sum(l.valor) as total, count(l) as quantidade from Lancamento l where l.usuario.id = :idUsuario group by l.ano, l.mes, l.tipo, l.status") // recalcula o resumo mensal
+    List<TotalMensal> obterTotaisMensais(@Param("idUsuario") Long idUsuario);
+
+    @Query(value = " select l.id as id, l.descricao as descricao from Lancamento l where l.usuario.id = :idUsuario") // carga do indice textual
+    List<DescricaoLancamento> obterDescricoes(@Param("idUsuario") Long idUsuario);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(value = " select l from Lancamento l where l.usuario.id = :idUsuario order by l.ano, l.mes, l.id") // exportacao: cursor no banco, lido de 500 em 500
+    Stream<Lancamento> percorrerPorUsuario(@Param("idUsuario") Long idUsuario);
+
+    List<Lancamento> findTop500ByDescricaoNormalizadaIsNullAndDescricaoIsNotNull(); // registros gravados antes da coluna normalizada
+
+    @Query(value = " select distinct l.ano, l.mes from Lancamento l where l.competencia is null and l.ano is not null and l.mes between 1 and 12") // registros gravados antes da coluna competencia
+    List<Object[]> obterMesesSemCompetencia();
+
+    @Modifying
+    @Query(value = " update Lancamento l set l.competencia = :competencia where l.ano = :ano and l.mes = :mes and l.competencia is null")
+    int preencherCompetencia(@Param("ano") Integer ano, @Param("mes") Integer mes, @Param("competencia") LocalDate competencia);
+
 }
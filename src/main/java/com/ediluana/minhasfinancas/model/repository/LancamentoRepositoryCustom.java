@@ -0,0 +1,25 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import com.ediluana.minhasfinancas.model.projection.TotalMensal;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public interface LancamentoRepositoryCustom {
+
+    List<LancamentoResumido> buscarPorFiltro(Lancamento filtro);
+
+    List<LancamentoResumido> buscarPorFiltroEIds(Lancamento filtro, long[] ids);
+
+    Slice<LancamentoResumido> buscarPaginaPorFiltro(Lancamento filtro, Integer cursorAno, Integer cursorMes, Long cursorId, int limite);
+
+    int travarParaTransicao(Lancamento filtro, List<Long> ids, StatusLancamento novoStatus);
+
+    List<TotalMensal> obterTotaisParaTransicao(Lancamento filtro, List<Long> ids, StatusLancamento novoStatus);
+
+    int atualizarStatusPorFiltro(Lancamento filtro, List<Long> ids, StatusLancamento novoStatus);
+
+}
@@ -0,0 +1,236 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import com.ediluana.minhasfinancas.model.projection.TotalMensal;
+import com.ediluana.minhasfinancas.model.util.Texto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Transactional(readOnly = true) // mesmo padrao dos metodos do SimpleJpaRepository
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+    // monta o jpql apenas com os filtros informados: igualdade em (usuario, ano, mes, tipo, status)
+    // intervalo de competencia e prefixo na descricao normalizada, todos atendidos pelos indices declarados em Lancamento
+
+    private static final int LOTE_IDS = 1000;
+
+    // projecao das consultas de leitura: sem entidade gerenciada e sem select do usuario
+    private static final String SELECT_RESUMIDO = " select new com.ediluana.minhasfinancas.model.projection.LancamentoResumido("
+            + "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.usuario.id) from Lancamento l";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LancamentoResumido> buscarPorFiltro(Lancamento filtro) {
+        Map<String, Object> parametros = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(SELECT_RESUMIDO).append(" where 1 = 1");
+        adicionarFiltros(filtro, jpql, parametros);
+        return criarQuery(jpql, parametros).getResultList();
+    }
+
+    @Override
+    public List<LancamentoResumido> buscarPorFiltroEIds(Lancamento filtro, long[] ids) { // ids ja casados pelo indice textual, a descricao nao vira predicado
+        List<LancamentoResumido> resultado = new ArrayList<>();
+        for (int inicio = 0; inicio < ids.length; inicio += LOTE_IDS) { // in (...) em lotes, longe do limite de parametros do driver
+            List<Long> lote = new ArrayList<>();
+            for (int i = inicio; i < Math.min(ids.length, inicio + LOTE_IDS); i++) {
+                lote.add(ids[i]);
+            }
+
+            Map<String, Object> parametros = new HashMap<>();
+            StringBuilder jpql = new StringBuilder(SELECT_RESUMIDO).append(" where l.id in :ids");
+            parametros.put("ids", lote);
+            adicionarFiltros(filtro, jpql, parametros, false);
+            resultado.addAll(criarQuery(jpql, parametros).getResultList());
+        }
+        return resultado;
+    }
+
+    @Override
+    public Slice<LancamentoResumido> buscarPaginaPorFiltro(Lancamento filtro, Integer cursorAno, Integer cursorMes, Long cursorId, int limite) {
+        Map<String, Object> parametros = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(SELECT_RESUMIDO).append(" where 1 = 1");
+        adicionarFiltros(filtro, jpql, parametros);
+
+        if (cursorId != null) { // comparacao de tupla: continua exatamente apos o ultimo registro da pagina anterior
+            jpql.append(" and l.ano >= :cursorAno and (l.ano, l.mes, l.id) > (:cursorAno, :cursorMes, :cursorId)"); // ano isolado: o postgres so poda particoes por ele
+            parametros.put("cursorAno", cursorAno);
+            parametros.put("cursorMes", cursorMes);
+            parametros.put("cursorId", cursorId);
+        }
+        jpql.append(" order by l.ano, l.mes, l.id");
+
+        List<LancamentoResumido> resultado = criarQuery(jpql, parametros).setMaxResults(limite + 1).getResultList(); // um a mais para saber se ha proxima pagina
+        boolean temProxima = resultado.size() > limite;
+        return new SliceImpl<>(temProxima ? resultado.subList(0, limite) : resultado, PageRequest.of(0, limite), temProxima);
+    }
+
+    @Override
+    @Transactional // select ... for update: o lock vale ate o fim da transacao de quem chamou
+    public int travarParaTransicao(Lancamento filtro, List<Long> ids, StatusLancamento novoStatus) {
+        // trava as linhas antes dos totais: outra troca de status concorrente espera e os totais batem com o que o update altera
+        Map<String, Object> parametros = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(" select l.id from Lancamento l where 1 = 1");
+        adicionarTransicao(filtro, ids, novoStatus, jpql, parametros);
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class).setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        parametros.forEach(query::setParameter);
+        return query.getResultList().size();
+    }
+
+    @Override
+    public List<TotalMensal> obterTotaisParaTransicao(Lancamento filtro, List<Long> ids, StatusLancamento novoStatus) { // estado anterior das linhas que o update vai alterar
+        Map<String, Object> parametros = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(" select l.ano, l.mes, l.tipo, l.status, sum(l.valor), count(l.id) from Lancamento l where 1 = 1");
+        adicionarTransicao(filtro, ids, novoStatus, jpql, parametros);
+        jpql.append(" group by l.ano, l.mes, l.tipo, l.status");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        parametros.forEach(query::setParameter);
+        List<TotalMensal> totais = new ArrayList<>();
+        for (Object resultado : query.getResultList()) {
+            Object[] linha = (Object[]) resultado;
+            totais.add(new Total((Integer) linha[0], (Integer) linha[1], (TipoLancamento) linha[2], (StatusLancamento) linha[3], (BigDecimal) linha[4], (Long) linha[5]));
+        }
+        return totais;
+    }
+
+    @Override
+    @Transactional
+    public int atualizarStatusPorFiltro(Lancamento filtro, List<Long> ids, StatusLancamento novoStatus) { // um unico update, sem carregar as entidades
+        Map<String, Object> parametros = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(" update Lancamento l set l.status = :novoStatus where 1 = 1");
+        adicionarTransicao(filtro, ids, novoStatus, jpql, parametros);
+
+        entityManager.flush(); // alteracoes pendentes vao antes do update em massa
+        Query query = entityManager.createQuery(jpql.toString());
+        parametros.forEach(query::setParameter);
+        int atualizados = query.executeUpdate();
+        entityManager.clear(); // entidades ja carregadas ficariam com o status antigo
+        return atualizados;
+    }
+
+    private void adicionarTransicao(Lancamento filtro, List<Long> ids, StatusLancamento novoStatus, StringBuilder jpql, Map<String, Object> parametros) {
+        if (ids != null && !ids.isEmpty()) {
+            jpql.append(" and l.id in :ids");
+            parametros.put("ids", ids);
+        }
+        adicionarFiltros(filtro, jpql, parametros, false);
+        jpql.append(" and (l.status is null or l.status <> :novoStatus)"); // linhas ja no status destino nao contam nem sao tocadas
+        parametros.put("novoStatus", novoStatus);
+    }
+
+    private void adicionarFiltros(Lancamento filtro, StringBuilder jpql, Map<String, Object> parametros) {
+        adicionarFiltros(filtro, jpql, parametros, true);
+    }
+
+    private void adicionarFiltros(Lancamento filtro, StringBuilder jpql, Map<String, Object> parametros, boolean filtrarDescricao) {
+        if (filtro.getUsuario() != null && filtro.getUsuario().getId() != null) {
+            jpql.append(" and l.usuario.id = :idUsuario");
+            parametros.put("idUsuario", filtro.getUsuario().getId());
+        }
+        if (filtro.getAno() != null) {
+            jpql.append(" and l.ano = :ano");
+            parametros.put("ano", filtro.getAno());
+        }
+        if (filtro.getMes() != null) {
+            jpql.append(" and l.mes = :mes");
+            parametros.put("mes", filtro.getMes());
+        }
+        if (filtro.getCompetenciaDe() != null) { // com o usuario: range scan em (id_usuario, competencia)
+            jpql.append(" and l.competencia >= :competenciaDe");
+            parametros.put("competenciaDe", filtro.getCompetenciaDe().atDay(1)); // competencia eh sempre o dia 1 do mes
+        }
+        if (filtro.getCompetenciaAte() != null) {
+            jpql.append(" and l.competencia <= :competenciaAte");
+            parametros.put("competenciaAte", filtro.getCompetenciaAte().atDay(1));
+        }
+        if (filtro.getAno() == null) { // chave de particao derivada de de/ate: o postgres nao poda pela competencia, so pelo ano
+            adicionarFaixaDeAnos(filtro.getCompetenciaDe(), filtro.getCompetenciaAte(), jpql, parametros);
+        }
+        if (filtro.getTipo() != null) {
+            jpql.append(" and l.tipo = :tipo");
+            parametros.put("tipo", filtro.getTipo());
+        }
+        if (filtro.getStatus() != null) {
+            jpql.append(" and l.status = :status");
+            parametros.put("status", filtro.getStatus());
+        }
+
+        String descricao = filtrarDescricao ? Texto.normalizar(filtro.getDescricao()) : null;
+        if (descricao != null && !descricao.isEmpty()) {
+            jpql.append(" and l.descricaoNormalizada like :descricao escape '!'"); // prefixo, sem lower() nem curinga inicial
+            parametros.put("descricao", Texto.escaparLike(descricao) + "%");
+        }
+    }
+
+    private void adicionarFaixaDeAnos(YearMonth de, YearMonth ate, StringBuilder jpql, Map<String, Object> parametros) {
+        if (de != null && ate != null) {
+            jpql.append(" and l.ano between :anoDe and :anoAte"); // so as particoes dos anos do periodo sao lidas
+            parametros.put("anoDe", de.getYear());
+            parametros.put("anoAte", ate.getYear());
+        } else if (de != null) {
+            jpql.append(" and l.ano >= :anoDe");
+            parametros.put("anoDe", de.getYear());
+        } else if (ate != null) {
+            jpql.append(" and l.ano <= :anoAte");
+            parametros.put("anoAte", ate.getYear());
+        }
+    }
+
+    private TypedQuery<LancamentoResumido> criarQuery(StringBuilder jpql, Map<String, Object> parametros) {
+        TypedQuery<LancamentoResumido> query = entityManager.createQuery(jpql.toString(), LancamentoResumido.class);
+        parametros.forEach(query::setParameter);
+        return query;
+    }
+
+    private record Total(Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status, BigDecimal total, Long quantidade) implements TotalMensal {
+
+        @Override
+        public Integer getAno() {
+            return ano;
+        }
+
+        @Override
+        public Integer getMes() {
+            return mes;
+        }
+
+        @Override
+        public TipoLancamento getTipo() {
+            return tipo;
+        }
+
+        @Override
+        public StatusLancamento getStatus() {
+            return status;
+        }
+
+        @Override
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        @Override
+        public Long getQuantidade() {
+            return quantidade;
+        }
+    }
+}
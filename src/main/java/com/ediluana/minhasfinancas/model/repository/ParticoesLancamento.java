@@ -0,0 +1,138 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+public class ParticoesLancamento implements SmartInitializingSingleton {
+    // no PostgreSQL financas.lancamento eh particionada por faixa de ano: uma particao por ano + a particao padrao
+    // consultas com l.ano no where so leem as particoes do periodo (partition pruning)
+    // a conversao da tabela criada pelo ddl-auto eh a migracao explicita db/particionar-lancamento.sql; aqui so as particoes dos anos seguintes
+    // as particoes do ano atual e do proximo sao conferidas na subida e por agendamento
+    // nenhum ddl no caminho das gravacoes: criar particao trava o pai em access exclusive e ocuparia uma conexao a mais por requisicao
+    // em outros bancos (H2 nos testes) nada muda
+
+    private static final Logger log = LoggerFactory.getLogger(ParticoesLancamento.class);
+
+    static final String TABELA = "financas.lancamento";
+
+    private static final String ESPERA_LOCK = "5s";
+
+    private static final Pattern NOME_PARTICAO = Pattern.compile("lancamento_(\\d{4})");
+
+    private final DataSource dataSource;
+    private final boolean habilitado;
+    private final Set<Integer> anos = ConcurrentHashMap.newKeySet(); // particoes ja criadas; ano que falhou fica de fora e eh tentado de novo
+    private volatile boolean ativo;
+
+    public ParticoesLancamento(DataSource dataSource, @Value("${minhasfinancas.banco.particionamento.habilitado:false}") boolean habilitado) {
+        this.dataSource = dataSource;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() { // depois do ddl-auto do hibernate e antes do servidor web aceitar requisicoes
+        if (!habilitado) {
+            return;
+        }
+        try (Connection conexao = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+            String tipo = tipoTabela(conexao);
+            if (tipo == null) { // ddl-auto desligado e tabela ainda nao criada
+                return;
+            }
+            if (!"p".equals(tipo)) { // tabela comum: a subida nao faz a conversao
+                log.warn("{} nao eh particionada; rode a migracao db/particionar-lancamento.sql para particiona-la por ano.", TABELA);
+                return;
+            }
+            anos.addAll(anosParticionados(conexao));
+            ativo = true;
+        } catch (SQLException e) {
+            log.error("Nao foi possivel ler as particoes de {}; as particoes dos proximos anos nao serao criadas.", TABELA, e);
+            return;
+        }
+
+        criarProximas();
+    }
+
+    @Scheduled(cron = "${minhasfinancas.banco.particionamento.cron:0 0 3 * * *}")
+    public void criarProximas() { // o proximo ano fica pronto com meses de antecedencia, antes de qualquer lancamento dele
+        int atual = Year.now().getValue();
+        garantir(atual);
+        garantir(atual + 1);
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    synchronized void garantir(int ano) {
+        if (!ativo || anos.contains(ano)) {
+            return;
+        }
+        try (Connection conexao = dataSource.getConnection(); Statement sql = conexao.createStatement()) {
+            conexao.setAutoCommit(false);
+            try {
+                sql.execute("set local lock_timeout = '" + ESPERA_LOCK + "'"); // local: nao fica na conexao do pool; nao enfileira as gravacoes atras de uma transacao longa
+                sql.execute(criarParticao(TABELA, ano));
+                conexao.commit();
+            } catch (SQLException e) {
+                conexao.rollback();
+                throw e;
+            } finally {
+                conexao.setAutoCommit(true);
+            }
+            anos.add(ano);
+            log.info("Particao {}_{} criada.", TABELA, ano);
+        } catch (SQLException e) {
+            // lock nao obtido ou ano ja presente na particao padrao: os inserts seguem na padrao e a proxima execucao tenta de novo
+            log.warn("Nao foi possivel criar a particao {}_{}; os lancamentos do ano ficam na particao padrao ate a proxima tentativa.", TABELA, ano, e);
+        }
+    }
+
+    static String criarParticao(String tabela, int ano) {
+        return "create table if not exists " + tabela + "_" + ano + " partition of " + tabela + " for values from (" + ano + ") to (" + (ano + 1) + ")";
+    }
+
+    static String tipoTabela(Connection conexao) throws SQLException {
+        try (Statement sql = conexao.createStatement();
+             ResultSet resultado = sql.executeQuery("select c.relkind from pg_class c join pg_namespace n on n.oid = c.relnamespace"
+                     + " where n.nspname = 'financas' and c.relname = 'lancamento'")) {
+            return resultado.next() ? resultado.getString(1) : null; // r: comum, p: particionada
+        }
+    }
+
+    private List<Integer> anosParticionados(Connection conexao) throws SQLException {
+        List<Integer> existentes = new ArrayList<>();
+        try (Statement sql = conexao.createStatement();
+             ResultSet resultado = sql.executeQuery("select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid"
+                     + " where i.inhparent = '" + TABELA + "'::regclass")) {
+            while (resultado.next()) {
+                Matcher nome = NOME_PARTICAO.matcher(resultado.getString(1));
+                if (nome.matches()) {
+                    existentes.add(Integer.valueOf(nome.group(1)));
+                }
+            }
+        }
+        return existentes;
+    }
+}
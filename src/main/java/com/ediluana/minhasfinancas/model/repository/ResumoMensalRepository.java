@@ -0,0 +1,28 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.model.entity.ResumoMensal;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, Long>, ResumoMensalRepositoryCustom {
+
+    List<ResumoMensal> findByIdUsuarioAndAnoBetweenOrderByAnoAscMesAsc(Long idUsuario, Integer anoInicial, Integer anoFinal); // range no indice (id_usuario, ano, mes)
+
+    List<ResumoMensal> findByIdUsuario(Long idUsuario);
+
+    @Query(" select u.id from Usuario u where exists (select l.id from Lancamento l where l.usuario.id = u.id)"
+            + " and (not exists (select r.id from ResumoMensal r where r.idUsuario = u.id)"
+            + " or exists (select r.id from ResumoMensal r where r.idUsuario = u.id and r.status is null))") // lancamentos gravados antes do resumo mensal
+    List<Long> obterUsuariosSemResumo();
+
+    @Modifying
+    @Query(" delete from ResumoMensal r where r.idUsuario = :idUsuario")
+    void deletarPorUsuario(@Param("idUsuario") Long idUsuario);
+
+}
@@ -0,0 +1,16 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public interface ResumoMensalRepositoryCustom {
+
+    void movimentar(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status, BigDecimal valor, Long quantidade);
+
+    int baixar(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status, BigDecimal valor, Long quantidade);
+
+    void removerSeVazio(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status);
+
+}
@@ -0,0 +1,67 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+public class ResumoMensalRepositoryImpl implements ResumoMensalRepositoryCustom {
+    // mesmo upsert do saldo, na chave (usuario, ano, mes, tipo, status): o primeiro lancamento do mes nao disputa a uk_resumo_mensal
+
+    static final String MOVIMENTAR_POSTGRES = "insert into financas.resumo_mensal as r (id_usuario, ano, mes, tipo, status, valor, quantidade) values (?1, ?2, ?3, ?4, ?5, ?6, ?7)"
+            + " on conflict (id_usuario, ano, mes, tipo, status) do update set valor = r.valor + excluded.valor, quantidade = r.quantidade + excluded.quantidade";
+
+    static final String MOVIMENTAR_H2 = "merge into financas.resumo_mensal r using (values (cast(?1 as bigint), cast(?2 as integer), cast(?3 as integer),"
+            + " cast(?4 as varchar(255)), cast(?5 as varchar(255)), cast(?6 as numeric(38, 2)), cast(?7 as bigint)))"
+            + " v(id_usuario, ano, mes, tipo, status, valor, quantidade)"
+            + " on r.id_usuario = v.id_usuario and r.ano = v.ano and r.mes = v.mes and r.tipo = v.tipo and r.status = v.status"
+            + " when matched then update set valor = r.valor + v.valor, quantidade = r.quantidade + v.quantidade"
+            + " when not matched then insert (id_usuario, ano, mes, tipo, status, valor, quantidade) values (v.id_usuario, v.ano, v.mes, v.tipo, v.status, v.valor, v.quantidade)";
+
+    // estorno so baixa linha que existe e nao fica negativa: 0 linhas alteradas eh resumo divergente
+    // nativo como o upsert: o hql de coluna + parametro decimal sai como cast(? as numeric($p,$s)) no H2
+    static final String BAIXAR = "update financas.resumo_mensal set valor = valor + ?6, quantidade = quantidade + ?7"
+            + " where id_usuario = ?1 and ano = ?2 and mes = ?3 and tipo = ?4 and status = ?5 and quantidade + ?7 >= 0";
+
+    static final String REMOVER_SE_VAZIO = "delete from financas.resumo_mensal where id_usuario = ?1 and ano = ?2 and mes = ?3 and tipo = ?4 and status = ?5"
+            + " and quantidade <= 0"; // mes sem lancamentos nao precisa ocupar linha
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void movimentar(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status, BigDecimal valor, Long quantidade) {
+        chave(entityManager.createNativeQuery(Upsert.postgres(entityManager) ? MOVIMENTAR_POSTGRES : MOVIMENTAR_H2), idUsuario, ano, mes, tipo, status)
+                .setParameter(6, valor)
+                .setParameter(7, quantidade)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int baixar(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status, BigDecimal valor, Long quantidade) {
+        return chave(entityManager.createNativeQuery(BAIXAR), idUsuario, ano, mes, tipo, status)
+                .setParameter(6, valor)
+                .setParameter(7, quantidade)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void removerSeVazio(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status) {
+        chave(entityManager.createNativeQuery(REMOVER_SE_VAZIO), idUsuario, ano, mes, tipo, status).executeUpdate();
+    }
+
+    private Query chave(Query query, Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status) {
+        return query.setParameter(1, idUsuario)
+                .setParameter(2, ano)
+                .setParameter(3, mes)
+                .setParameter(4, tipo.name())
+                .setParameter(5, status.name());
+    }
+}
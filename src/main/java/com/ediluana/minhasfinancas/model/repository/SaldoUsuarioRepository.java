@@ -0,0 +1,24 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.model.entity.SaldoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long>, SaldoUsuarioRepositoryCustom {
+
+    List<SaldoUsuario> findByIdUsuario(Long idUsuario);
+
+    @Query(" select u.id from Usuario u where exists (select l.id from Lancamento l where l.usuario.id = u.id)"
+            + " and (not exists (select s.id from SaldoUsuario s where s.idUsuario = u.id)"
+            + " or exists (select s.id from SaldoUsuario s where s.idUsuario = u.id and s.status is null))") // lancamentos gravados antes do saldo materializado
+    List<Long> obterUsuariosSemSaldo();
+
+    @Modifying
+    @Query(" delete from SaldoUsuario s where s.idUsuario = :idUsuario") // delete em lote, executa antes dos inserts da reconstrucao
+    void deletarPorUsuario(@Param("idUsuario") Long idUsuario);
+
+}
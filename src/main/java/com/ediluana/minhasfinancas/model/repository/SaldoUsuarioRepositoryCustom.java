@@ -0,0 +1,12 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public interface SaldoUsuarioRepositoryCustom {
+
+    void movimentar(Long idUsuario, TipoLancamento tipo, StatusLancamento status, BigDecimal valor);
+
+}
@@ -0,0 +1,36 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+public class SaldoUsuarioRepositoryImpl implements SaldoUsuarioRepositoryCustom {
+    // a linha (usuario, tipo, status) eh criada ou somada num comando so: duas primeiras escritas concorrentes
+    // nao colidem na uk_saldo_usuario_tipo_status (o select for update nao trava linha que ainda nao existe)
+
+    static final String MOVIMENTAR_POSTGRES = "insert into financas.saldo_usuario as s (id_usuario, tipo, status, valor) values (?1, ?2, ?3, ?4)"
+            + " on conflict (id_usuario, tipo, status) do update set valor = s.valor + excluded.valor";
+
+    static final String MOVIMENTAR_H2 = "merge into financas.saldo_usuario s using (values (cast(?1 as bigint), cast(?2 as varchar(255)), cast(?3 as varchar(255)), cast(?4 as numeric(38, 2))))"
+            + " v(id_usuario, tipo, status, valor) on s.id_usuario = v.id_usuario and s.tipo = v.tipo and s.status = v.status"
+            + " when matched then update set valor = s.valor + v.valor"
+            + " when not matched then insert (id_usuario, tipo, status, valor) values (v.id_usuario, v.tipo, v.status, v.valor)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void movimentar(Long idUsuario, TipoLancamento tipo, StatusLancamento status, BigDecimal valor) {
+        entityManager.createNativeQuery(Upsert.postgres(entityManager) ? MOVIMENTAR_POSTGRES : MOVIMENTAR_H2)
+                .setParameter(1, idUsuario)
+                .setParameter(2, tipo.name())
+                .setParameter(3, status.name())
+                .setParameter(4, valor)
+                .executeUpdate();
+    }
+}
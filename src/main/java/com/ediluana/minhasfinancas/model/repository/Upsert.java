@@ -0,0 +1,16 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+final class Upsert {
+    // insert ou soma atomico numa linha de chave unica: no postgres insert ... on conflict do update; o H2 dos testes nao tem on conflict e usa merge
+
+    private Upsert() {
+    }
+
+    static boolean postgres(EntityManager entityManager) { // pelo dialeto do hibernate, sem abrir conexao
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -1,9 +1,16 @@
 package com.ediluana.minhasfinancas.model.repository;
 
 import com.ediluana.minhasfinancas.model.entity.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
@@ -11,4 +18,15 @@ boolean existsByEmail(String email);
 
 Optional<Usuario> findByEmail(String email); //evita null excepition
 
+@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+@Query(value = " select u.email from Usuario u where u.email is not null") // carga do filtro de emails
+Stream<String> percorrerEmails();
+
+@Query(" select coalesce(u.versaoLancamentos, 0) from Usuario u where u.id = :idUsuario") // nulo: usuario sem escrita desde que a coluna existe
+Optional<Long> obterVersaoLancamentos(@Param("idUsuario") Long idUsuario);
+
+@Modifying
+@Query(" update Usuario u set u.versaoLancamentos = coalesce(u.versaoLancamentos, 0) + 1 where u.id = :idUsuario")
+int incrementarVersaoLancamentos(@Param("idUsuario") Long idUsuario);
+
 }
@@ -0,0 +1,75 @@
+package com.ediluana.minhasfinancas.model.util;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+public final class AcumuladorMonetario {
+    // soma de valores monetarios em centavos num long: nenhum BigDecimal intermediario por linha
+    // total() devolve exatamente o que reduce(BigDecimal.ZERO, BigDecimal::add) devolveria, inclusive a escala
+    // estouro do long ou valor com mais de 2 casas decimais: ArithmeticException (nunca arredonda em silencio)
+
+    public static final int ESCALA = 2;
+
+    private static final long[] POTENCIAS = {100, 10, 1};
+
+    private long centavos;
+    private int escala; // maior escala somada, como no BigDecimal.add a partir do ZERO
+    private long quantidade;
+
+    public AcumuladorMonetario somar(BigDecimal valor) {
+        centavos = somarExato(centavos, centavos(valor));
+        registrar(valor);
+        return this;
+    }
+
+    public AcumuladorMonetario subtrair(BigDecimal valor) {
+        centavos = somarExato(centavos, Math.negateExact(centavos(valor)));
+        registrar(valor);
+        return this;
+    }
+
+    public AcumuladorMonetario somar(AcumuladorMonetario outro) {
+        centavos = somarExato(centavos, outro.centavos);
+        escala = Math.max(escala, outro.escala);
+        quantidade += outro.quantidade;
+        return this;
+    }
+
+    public long centavos() {
+        return centavos;
+    }
+
+    public long quantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal total() {
+        return BigDecimal.valueOf(centavos, ESCALA).setScale(escala); // exato: abaixo de 2 casas os digitos descartados sao zero
+    }
+
+    public static long centavos(BigDecimal valor) {
+        int escala = valor.scale();
+        if (escala >= 0 && escala <= ESCALA && valor.precision() <= 16) { // caminho comum: cabe no long sem passar por BigInteger grande
+            return Math.multiplyExact(valor.unscaledValue().longValue(), POTENCIAS[escala]);
+        }
+        return valor.setScale(ESCALA).unscaledValue().longValueExact(); // setScale sem arredondamento: mais de 2 casas significativas lanca excecao
+    }
+
+    public static <T> Collector<T, AcumuladorMonetario, AcumuladorMonetario> somando(Function<T, BigDecimal> valor) {
+        return Collector.of(AcumuladorMonetario::new, (acumulador, item) -> acumulador.somar(valor.apply(item)), AcumuladorMonetario::somar);
+    }
+
+    private void registrar(BigDecimal valor) {
+        escala = Math.max(escala, valor.scale());
+        quantidade++;
+    }
+
+    private static long somarExato(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Estouro na soma monetária (limite de " + Long.MAX_VALUE + " centavos).");
+        }
+    }
+}
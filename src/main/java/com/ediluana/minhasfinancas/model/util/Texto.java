@@ -0,0 +1,41 @@
+package com.ediluana.minhasfinancas.model.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.regex.Pattern;
+
+public final class Texto {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private Texto() {
+    }
+
+    // minusculo, sem acento e com espacos simples: forma gravada em descricao_normalizada e usada nas buscas
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcento.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // escapa os curingas do like para que o termo seja tratado como texto literal (escape '!')
+    public static String escaparLike(String texto) {
+        return texto.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    // palavras distintas do texto normalizado, usadas como termos do indice invertido
+    public static List<String> tokenizar(String texto) {
+        String normalizado = normalizar(texto);
+        if (normalizado == null || normalizado.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(SEPARADORES.split(normalizado)).filter(termo -> !termo.isEmpty()).distinct().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,32 @@
+package com.ediluana.minhasfinancas.service;
+
+import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record CursorLancamento(Integer ano, Integer mes, Long id) {
+    // posicao do ultimo lancamento retornado na ordem (ano, mes, id), usada na paginacao por chave
+
+    public static CursorLancamento de(LancamentoResumido lancamento) {
+        return new CursorLancamento(lancamento.ano(), lancamento.mes(), lancamento.id());
+    }
+
+    public String codificar() {
+        String valor = ano + ":" + mes + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorLancamento decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null; // primeira pagina
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) { // NumberFormatException eh IllegalArgumentException
+            throw new RegraNegocioException("Cursor inválido.");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ediluana.minhasfinancas.service;
+
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public record Dashboard(BigDecimal saldo, List<LancamentoResumido> lancamentosMes, Map<TipoLancamento, BigDecimal> pendentes, List<String> indisponiveis) {
+    // partes que falharam ou passaram do tempo ficam nulas e com o nome em indisponiveis
+
+    public static final String SALDO = "saldo";
+    public static final String LANCAMENTOS_MES = "lancamentosMes";
+    public static final String PENDENTES = "pendentes";
+
+}
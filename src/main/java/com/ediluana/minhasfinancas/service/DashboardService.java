@@ -0,0 +1,7 @@
+package com.ediluana.minhasfinancas.service;
+
+public interface DashboardService {
+
+    Dashboard obter(Long idUsuario);
+
+}
@@ -2,27 +2,40 @@ package com.ediluana.minhasfinancas.service;
 
 import com.ediluana.minhasfinancas.model.entity.Lancamento;
 import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LancamentoService {
 
     Lancamento salvar(Lancamento lancamento);
 
+    List<Lancamento> salvarEmLote(List<Lancamento> lancamentos);
+
     Lancamento atualizar(Lancamento lancamento);
 
     void deletar(Lancamento lancamento);
 
-    List<Lancamento> buscar(Lancamento lancamentoFiltro);
+    List<LancamentoResumido> buscar(Lancamento lancamentoFiltro);
+
+    Slice<LancamentoResumido> buscar(Lancamento lancamentoFiltro, CursorLancamento cursor, int limite);
+
+    void percorrer(Long idUsuario, Consumer<Lancamento> consumidor);
 
     void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 
+    int atualizarStatusEmLote(Lancamento filtro, List<Long> ids, StatusLancamento status);
+
     void validar(Lancamento lancamento);
 
     Optional<Lancamento> obterPorId(Long id);
 
     BigDecimal obterSaldoPorUsuario(Long id);
 
+    long obterVersao(Long idUsuario);
+
 }
@@ -0,0 +1,24 @@
+package com.ediluana.minhasfinancas.service;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.ResumoMensal;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.projection.TotalMensal;
+
+import java.util.List;
+
+public interface ResumoService {
+
+    void registrar(Lancamento lancamento);
+
+    void estornar(Lancamento lancamento);
+
+    void registrarTodos(List<Lancamento> lancamentos);
+
+    void transferirStatus(Long idUsuario, List<TotalMensal> totais, StatusLancamento novoStatus);
+
+    List<ResumoMensal> obterResumo(Long idUsuario, Integer anoInicial, Integer anoFinal);
+
+    void reconstruir(Long idUsuario);
+
+}
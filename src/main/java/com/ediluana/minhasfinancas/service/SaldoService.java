@@ -0,0 +1,26 @@
+package com.ediluana.minhasfinancas.service;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.projection.TotalMensal;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface SaldoService {
+
+    void registrar(Lancamento lancamento);
+
+    void estornar(Lancamento lancamento);
+
+    void registrarTodos(List<Lancamento> lancamentos);
+
+    void transferirStatus(Long idUsuario, List<TotalMensal> totais, StatusLancamento novoStatus);
+
+    BigDecimal obterSaldo(Long idUsuario);
+
+    void reconstruir(Long idUsuario);
+
+    boolean verificar(Long idUsuario);
+
+}
@@ -0,0 +1,9 @@
+package com.ediluana.minhasfinancas.service;
+
+public interface TokenService {
+
+    String gerar(Long idUsuario);
+
+    Long validar(String token);
+
+}
@@ -0,0 +1,156 @@
+package com.ediluana.minhasfinancas.service.busca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class IndiceInvertido {
+    // indice de um usuario: termo -> ids dos lancamentos (long[] ordenado, sem objetos por posting)
+
+    private final NavigableMap<String, Postagens> termos = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long tamanho;
+
+    void adicionar(long id, Collection<String> tokens) {
+        lock.writeLock().lock();
+        try {
+            for (String token : tokens) {
+                if (termos.computeIfAbsent(token, t -> new Postagens()).adicionar(id)) {
+                    tamanho++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remover(long id, Collection<String> tokens) {
+        lock.writeLock().lock();
+        try {
+            for (String token : tokens) {
+                Postagens postagens = termos.get(token);
+                if (postagens != null && postagens.remover(id)) {
+                    tamanho--;
+                    if (postagens.tamanho == 0) {
+                        termos.remove(token);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // cada termo da consulta casa com o prefixo de alguma palavra; todos os termos precisam casar (AND)
+    long[] buscar(List<String> consulta) {
+        if (consulta.isEmpty()) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            List<long[]> porTermo = new ArrayList<>(consulta.size());
+            for (String termo : consulta) {
+                long[] ids = unir(termos.subMap(termo, true, termo + Character.MAX_VALUE, true));
+                if (ids.length == 0) {
+                    return ids;
+                }
+                porTermo.add(ids);
+            }
+
+            porTermo.sort((a, b) -> Integer.compare(a.length, b.length)); // intersecta a partir da menor lista
+            long[] resultado = porTermo.get(0);
+            for (int i = 1; i < porTermo.size() && resultado.length > 0; i++) {
+                resultado = intersectar(resultado, porTermo.get(i));
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long tamanho() {
+        return tamanho;
+    }
+
+    private static long[] unir(Map<String, Postagens> encontrados) {
+        if (encontrados.size() == 1) {
+            Postagens unica = encontrados.values().iterator().next();
+            return Arrays.copyOf(unica.ids, unica.tamanho);
+        }
+
+        int total = 0;
+        for (Postagens postagens : encontrados.values()) {
+            total += postagens.tamanho;
+        }
+        long[] todos = new long[total];
+        int posicao = 0;
+        for (Postagens postagens : encontrados.values()) {
+            System.arraycopy(postagens.ids, 0, todos, posicao, postagens.tamanho);
+            posicao += postagens.tamanho;
+        }
+        Arrays.sort(todos);
+
+        int distintos = 0; // remove repetidos (o mesmo lancamento em mais de uma palavra com o prefixo)
+        for (int i = 0; i < todos.length; i++) {
+            if (i == 0 || todos[i] != todos[i - 1]) {
+                todos[distintos++] = todos[i];
+            }
+        }
+        return Arrays.copyOf(todos, distintos);
+    }
+
+    private static long[] intersectar(long[] a, long[] b) {
+        long[] resultado = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                resultado[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, k);
+    }
+
+    private static class Postagens {
+        // ids ordenados; ids crescentes (identity) fazem o caso comum ser um append no fim
+        private long[] ids = new long[4];
+        private int tamanho;
+
+        boolean adicionar(long id) {
+            int posicao = tamanho > 0 && ids[tamanho - 1] < id ? -(tamanho + 1) : Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                return false;
+            }
+            posicao = -(posicao + 1);
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho + (tamanho >> 1) + 1);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+            return true;
+        }
+
+        boolean remover(long id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ediluana.minhasfinancas.service.busca;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.projection.DescricaoLancamento;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import com.ediluana.minhasfinancas.model.util.Texto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+public class IndiceTextual {
+    // busca textual opcional na descricao: um indice invertido por usuario, montado sob demanda a partir do banco
+    // e mantido pelas escritas do LancamentoService; a fase de casamento nao consulta o banco
+
+    private final boolean habilitado;
+    private final LancamentoRepository repository;
+    private final Cache<Long, IndiceInvertido> indices;
+
+    public IndiceTextual(@Value("${minhasfinancas.busca-textual.habilitada:false}") boolean habilitado,
+                         @Value("${minhasfinancas.busca-textual.maximo-postagens:5000000}") long maximoPostagens,
+                         @Value("${minhasfinancas.busca-textual.inatividade:PT30M}") Duration inatividade,
+                         LancamentoRepository repository,
+                         ObjectProvider<MeterRegistry> registry) {
+        this.habilitado = habilitado;
+        this.repository = repository;
+        this.indices = Caffeine.newBuilder()
+                .maximumWeight(maximoPostagens) // peso = postagens no momento da carga; usuarios inativos saem primeiro
+                .weigher((Long idUsuario, IndiceInvertido indice) -> (int) Math.min(Integer.MAX_VALUE, Math.max(1, indice.tamanho())))
+                .expireAfterAccess(inatividade)
+                .recordStats()
+                .build();
+
+        registry.ifAvailable(r -> CaffeineCacheMetrics.monitor(r, indices, "indice-textual"));
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    // ids (ordenados) dos lancamentos do usuario cuja descricao contem todos os termos da consulta como prefixo de palavra
+    public long[] buscar(Long idUsuario, String consulta) {
+        return indices.get(idUsuario, this::carregar).buscar(Texto.tokenizar(consulta));
+    }
+
+    public void indexar(Lancamento lancamento) {
+        aplicar(lancamento, true);
+    }
+
+    public void remover(Lancamento lancamento) {
+        aplicar(lancamento, false);
+    }
+
+    private IndiceInvertido carregar(Long idUsuario) {
+        IndiceInvertido indice = new IndiceInvertido();
+        for (DescricaoLancamento descricao : repository.obterDescricoes(idUsuario)) {
+            indice.adicionar(descricao.getId(), Texto.tokenizar(descricao.getDescricao()));
+        }
+        return indice;
+    }
+
+    private void aplicar(Lancamento lancamento, boolean adicionar) {
+        if (!habilitado || lancamento.getId() == null || lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null) {
+            return;
+        }
+
+        Long idUsuario = lancamento.getUsuario().getId();
+        long id = lancamento.getId();
+        List<String> tokens = Texto.tokenizar(lancamento.getDescricao()); // captura agora, a entidade pode mudar ate o commit
+
+        // indice ainda nao carregado fica como esta: a carga le o banco ja com a alteracao.
+        // computeIfPresent espera uma carga em andamento terminar, e adicionar/remover sao idempotentes
+        Runnable alteracao = () -> indices.asMap().computeIfPresent(idUsuario, (chave, indice) -> {
+            if (adicionar) {
+                indice.adicionar(id, tokens);
+            } else {
+                indice.remover(id, tokens);
+            }
+            return indice;
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) { // rollback nao deve chegar ao indice
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    alteracao.run();
+                }
+            });
+        } else {
+            alteracao.run();
+        }
+    }
+}
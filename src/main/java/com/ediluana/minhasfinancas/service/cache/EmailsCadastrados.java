@@ -0,0 +1,51 @@
+package com.ediluana.minhasfinancas.service.cache;
+
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+@Component
+public class EmailsCadastrados {
+    // filtro de bloom dos emails ja cadastrados: "nao contem" dispensa o existsByEmail do cadastro
+    // a unicidade de verdade eh o indice unico em usuario.email; o filtro so evita a consulta
+
+    private final UsuarioRepository repository;
+    private final TransactionTemplate transacao;
+    private final FiltroBloom filtro;
+    private volatile boolean carregado; // antes da carga toda consulta vai ao banco
+
+    public EmailsCadastrados(UsuarioRepository repository, PlatformTransactionManager transactionManager,
+                             @Value("${minhasfinancas.usuarios.emails-esperados:1000000}") long emailsEsperados,
+                             @Value("${minhasfinancas.usuarios.emails-falso-positivo:0.01}") double falsoPositivo) {
+        this.repository = repository;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacao.setReadOnly(true);
+        this.filtro = new FiltroBloom(emailsEsperados, falsoPositivo);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        transacao.executeWithoutResult(status -> {
+            try (Stream<String> emails = repository.percorrerEmails()) {
+                emails.forEach(this::adicionar);
+            }
+        });
+        carregado = true; // cadastros durante a carga ja foram adicionados pelo salvarUsuario
+    }
+
+    public boolean talvezExista(String email) {
+        return email == null || !carregado || filtro.talvezContenha(email);
+    }
+
+    public void adicionar(String email) {
+        if (email != null) {
+            filtro.adicionar(email);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ediluana.minhasfinancas.service.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class FiltroBloom {
+    // conjunto probabilistico: sem falso negativo, falso positivo ~ taxa configurada ate o numero de elementos esperado
+    // bits num AtomicLongArray, adicao sem lock; k posicoes por double hashing (h1 + i * h2)
+
+    private final AtomicLongArray bits;
+    private final long tamanho;
+    private final int funcoes;
+
+    FiltroBloom(long elementosEsperados, double falsoPositivo) {
+        long n = Math.max(1, elementosEsperados);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(falsoPositivo) / (Math.log(2) * Math.log(2))));
+        this.bits = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE, (m + 63) / 64));
+        this.tamanho = bits.length() * 64L;
+        this.funcoes = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    void adicionar(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= funcoes; i++) {
+            long posicao = posicao(h1, h2, i);
+            long mascara = 1L << (posicao & 63);
+            bits.getAndAccumulate((int) (posicao >>> 6), mascara, (atual, m) -> atual | m);
+        }
+    }
+
+    boolean talvezContenha(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= funcoes; i++) {
+            long posicao = posicao(h1, h2, i);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << (posicao & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int funcoes() {
+        return funcoes;
+    }
+
+    long tamanho() {
+        return tamanho;
+    }
+
+    private long posicao(int h1, int h2, int i) {
+        long combinado = h1 + (long) i * h2;
+        return (combinado & Long.MAX_VALUE) % tamanho;
+    }
+
+    private static long hash(String valor) { // 64 bits: multiplicacao por caractere + finalizador do murmur3
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < valor.length(); i++) {
+            h = (h ^ valor.charAt(i)) * 0xBF58476D1CE4E5B9L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
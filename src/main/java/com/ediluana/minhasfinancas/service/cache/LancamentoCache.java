@@ -0,0 +1,59 @@
+package com.ediluana.minhasfinancas.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Component
+public class LancamentoCache {
+    // cache das leituras do LancamentoService; a chave leva a versao do usuario (VersaoLancamentos)
+    // escrita troca a versao: invalidar eh O(1) e as entradas da versao antiga saem pelo tamanho maximo ou pelo ttl
+    // carga em andamento durante uma escrita grava na chave da versao antiga, que ninguem mais le
+    // dentro de uma transacao de escrita nao usa o cache: a versao e os dados ainda nao confirmados podem ser desfeitos
+    // acerto nao eh de graca: a versao vem do banco, uma conexao + um select por chave primaria (ver OrcamentoSqlCacheTest)
+
+    private final boolean habilitado;
+    private final VersaoLancamentos versoes;
+    private final Cache<Chave, Object> cache;
+
+    public LancamentoCache(@Value("${minhasfinancas.cache.habilitado:true}") boolean habilitado,
+                           @Value("${minhasfinancas.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                           @Value("${minhasfinancas.cache.ttl:PT5M}") Duration ttl,
+                           VersaoLancamentos versoes,
+                           ObjectProvider<MeterRegistry> registry) {
+        this.habilitado = habilitado;
+        this.versoes = versoes;
+        this.cache = Caffeine.newBuilder() // despejo W-TinyLFU do caffeine
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        registry.ifAvailable(r -> CaffeineCacheMetrics.monitor(r, cache, "lancamentos")); // cache.gets (hit/miss), cache.evictions, cache.size
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T obter(Long idUsuario, String consulta, List<Object> parametros, Supplier<T> carregar) {
+        if (!habilitado || idUsuario == null || emEscrita()) {
+            return carregar.get();
+        }
+        long versao = versoes.obter(idUsuario); // lida antes da carga: dado antigo nunca fica sob a versao nova
+        return (T) cache.get(new Chave(idUsuario, versao, consulta, parametros), chave -> carregar.get());
+    }
+
+    private boolean emEscrita() {
+        return TransactionSynchronizationManager.isActualTransactionActive() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    record Chave(Long idUsuario, long versao, String consulta, List<Object> parametros) {
+    }
+}
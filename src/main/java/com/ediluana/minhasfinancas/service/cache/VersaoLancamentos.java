@@ -0,0 +1,32 @@
+package com.ediluana.minhasfinancas.service.cache;
+
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class VersaoLancamentos {
+    // versao dos lancamentos de cada usuario, trocada a cada escrita; base do ETag das leituras e da chave do LancamentoCache
+    // guardada em usuario.versao_lancamentos e incrementada na transacao da escrita: versao e dados confirmam juntos,
+    // entao qualquer instancia da aplicacao le a mesma versao e nunca ve a versao nova com os dados antigos
+    // custo: cada obter eh uma conexao do pool + um select por chave primaria; o 304 e o acerto no LancamentoCache pagam essa ida
+    // (GET /api/lancamentos com If-None-Match valido: 1 ida, ver OrcamentoSqlEndpointsTest) em troca de valer entre instancias
+
+    private final UsuarioRepository repository;
+
+    public VersaoLancamentos(UsuarioRepository repository) {
+        this.repository = repository;
+    }
+
+    public long obter(Long idUsuario) {
+        return repository.obterVersaoLancamentos(idUsuario).orElse(0L);
+    }
+
+    @Transactional // participa da transacao de quem escreveu; o update trava a linha do usuario ate o commit
+    public void incrementar(Long idUsuario) {
+        if (idUsuario == null) {
+            return;
+        }
+        repository.incrementarVersaoLancamentos(idUsuario);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+@Component
+public class CompetenciaInicializador {
+    // preenche competencia dos lancamentos gravados antes da coluna existir: um update por mes/ano, sem carregar entidades
+
+    private final LancamentoRepository repository;
+    private final TransactionTemplate transacao;
+
+    public CompetenciaInicializador(LancamentoRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preencher() {
+        for (Object[] mes : repository.obterMesesSemCompetencia()) {
+            Integer ano = (Integer) mes[0];
+            Integer numeroMes = (Integer) mes[1];
+            transacao.executeWithoutResult(status -> repository.preencherCompetencia(ano, numeroMes, LocalDate.of(ano, numeroMes, 1)));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.ResumoMensal;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import com.ediluana.minhasfinancas.model.util.AcumuladorMonetario;
+import com.ediluana.minhasfinancas.service.Dashboard;
+import com.ediluana.minhasfinancas.service.DashboardService;
+import com.ediluana.minhasfinancas.service.LancamentoService;
+import com.ediluana.minhasfinancas.service.ResumoService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Service
+public class DashboardServiceImpl implements DashboardService {
+    // saldo, lancamentos do mes e totais pendentes consultados em paralelo, cada um na sua transacao somente leitura
+    // a latencia fica a da parte mais lenta (limitada pelo timeout) e nao a soma das tres
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardServiceImpl.class);
+
+    private final LancamentoService lancamentoService;
+    private final ResumoService resumoService;
+    private final TransactionTemplate leitura;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+
+    public DashboardServiceImpl(LancamentoService lancamentoService, ResumoService resumoService, PlatformTransactionManager transactionManager,
+                                @Value("${minhasfinancas.dashboard.threads:8}") int threads,
+                                @Value("${minhasfinancas.dashboard.fila:64}") int fila,
+                                @Value("${minhasfinancas.dashboard.timeout:PT2S}") Duration timeout) {
+        this.lancamentoService = lancamentoService;
+        this.resumoService = resumoService;
+        this.timeoutNanos = timeout.toNanos();
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.leitura.setTimeout((int) Math.max(1, timeout.toSeconds())); // a consulta no banco tambem para, nao so a espera
+
+        AtomicInteger numero = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(fila), tarefa -> {
+            Thread thread = new Thread(tarefa, "dashboard-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }); // fila cheia: RejectedExecutionException e a parte volta indisponivel em vez de acumular espera
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public Dashboard obter(Long idUsuario) {
+        LocalDate hoje = LocalDate.now();
+        long limite = System.nanoTime() + timeoutNanos; // as partes comecam juntas: um prazo so para todas
+
+        Future<BigDecimal> saldo = submeter(() -> lancamentoService.obterSaldoPorUsuario(idUsuario));
+        Future<List<LancamentoResumido>> lancamentosMes = submeter(() -> lancamentoService.buscar(filtroMes(idUsuario, hoje)));
+        Future<Map<TipoLancamento, BigDecimal>> pendentes = submeter(() -> totaisPendentes(idUsuario));
+
+        List<String> indisponiveis = new ArrayList<>();
+        return new Dashboard(
+                aguardar(Dashboard.SALDO, saldo, limite, indisponiveis),
+                aguardar(Dashboard.LANCAMENTOS_MES, lancamentosMes, limite, indisponiveis),
+                aguardar(Dashboard.PENDENTES, pendentes, limite, indisponiveis),
+                indisponiveis);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private Lancamento filtroMes(Long idUsuario, LocalDate hoje) {
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(idUsuario).build()); // o filtro so usa o id
+        filtro.setMes(hoje.getMonthValue());
+        filtro.setAno(hoje.getYear());
+        return filtro;
+    }
+
+    private Map<TipoLancamento, BigDecimal> totaisPendentes(Long idUsuario) { // lido do resumo mensal, sem somar lancamentos
+        Map<TipoLancamento, AcumuladorMonetario> somas = new EnumMap<>(TipoLancamento.class);
+        for (ResumoMensal resumo : resumoService.obterResumo(idUsuario, null, null)) {
+            if (resumo.getStatus() == StatusLancamento.PENDENTE) {
+                somas.computeIfAbsent(resumo.getTipo(), tipo -> new AcumuladorMonetario()).somar(resumo.getValor());
+            }
+        }
+        Map<TipoLancamento, BigDecimal> totais = new EnumMap<>(TipoLancamento.class);
+        somas.forEach((tipo, soma) -> totais.put(tipo, soma.total()));
+        return totais;
+    }
+
+    private <T> Future<T> submeter(Supplier<T> consulta) {
+        try {
+            return executor.submit(() -> leitura.execute(status -> consulta.get()));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private <T> T aguardar(String parte, Future<T> futuro, long limite, List<String> indisponiveis) {
+        if (futuro == null) {
+            log.warn("Dashboard: parte {} recusada, executor cheio.", parte);
+            indisponiveis.add(parte);
+            return null;
+        }
+        try {
+            return futuro.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            log.warn("Dashboard: parte {} passou do tempo limite.", parte);
+        } catch (ExecutionException e) {
+            log.warn("Dashboard: parte {} falhou.", parte, e.getCause());
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        indisponiveis.add(parte);
+        return null;
+    }
+}
@@ -4,30 +4,67 @@ import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
 import com.ediluana.minhasfinancas.model.entity.Lancamento;
 import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
 import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import com.ediluana.minhasfinancas.model.projection.TotalMensal;
 import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import com.ediluana.minhasfinancas.model.util.AcumuladorMonetario;
+import com.ediluana.minhasfinancas.service.CursorLancamento;
 import com.ediluana.minhasfinancas.service.LancamentoService;
+import com.ediluana.minhasfinancas.service.ResumoService;
+import com.ediluana.minhasfinancas.service.SaldoService;
+import com.ediluana.minhasfinancas.service.busca.IndiceTextual;
+import com.ediluana.minhasfinancas.service.cache.LancamentoCache;
+import com.ediluana.minhasfinancas.service.cache.VersaoLancamentos;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.TransactionScoped;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.annotation.ReadOnlyProperty;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 
+    private static final int LIMITE_MAXIMO = 500;
+
+    private static final int TAMANHO_FLUSH_LOTE = 500; // multiplo do hibernate.jdbc.batch_size
+
+    private static final int TAMANHO_MAXIMO_TRANSICAO = 10000; // ids por troca de status em lote, mesmo limite do POST /lote
+
     @Autowired // Não é necessario pois o bean gerenciado (service) já injeta
     private LancamentoRepository repository;
 
-    public LancamentoServiceImpl(LancamentoRepository repository) {
+    private SaldoService saldoService;
+
+    private ResumoService resumoService;
+
+    private LancamentoCache cache;
+
+    private IndiceTextual indiceTextual;
+
+    private VersaoLancamentos versoes;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public LancamentoServiceImpl(LancamentoRepository repository, SaldoService saldoService, ResumoService resumoService, LancamentoCache cache, IndiceTextual indiceTextual, VersaoLancamentos versoes) {
         this.repository = repository;
+        this.saldoService = saldoService;
+        this.resumoService = resumoService;
+        this.cache = cache;
+        this.indiceTextual = indiceTextual;
+        this.versoes = versoes;
     }
 
     @Override
@@ -35,7 +72,39 @@ public class LancamentoServiceImpl implements LancamentoService {
     public Lancamento salvar(Lancamento lancamento) {
         validar(lancamento);
         lancamento.setStatus(StatusLancamento.PENDENTE);
-        return repository.save(lancamento);
+        Lancamento salvo = repository.save(lancamento);
+        saldoService.registrar(salvo); // mesma transacao do insert
+        resumoService.registrar(salvo);
+        indiceTextual.indexar(salvo);
+        alterado(idUsuario(salvo));
+        return salvo;
+    }
+
+    @Override
+    @Transactional
+    public List<Lancamento> salvarEmLote(List<Lancamento> lancamentos) {
+        lancamentos.forEach(this::validar);
+        if (lancamentos.stream().anyMatch(l -> l.getId() != null)) { // persist de entidade destacada lancaria PersistentObjectException
+            throw new RegraNegocioException("O lote cadastra apenas lançamentos novos; não informe o Id.");
+        }
+
+        for (int i = 0; i < lancamentos.size(); i++) {
+            Lancamento lancamento = lancamentos.get(i);
+            lancamento.setStatus(StatusLancamento.PENDENTE);
+            entityManager.persist(lancamento); // id vem da sequence, o insert fica para o flush em batch
+            if ((i + 1) % TAMANHO_FLUSH_LOTE == 0) {
+                entityManager.flush();
+                entityManager.clear(); // contexto de persistencia nao cresce com o tamanho do lote
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        saldoService.registrarTodos(lancamentos); // movimenta saldo e resumo por grupo, nao por lancamento
+        resumoService.registrarTodos(lancamentos);
+        lancamentos.forEach(indiceTextual::indexar);
+        lancamentos.stream().map(this::idUsuario).distinct().forEach(this::alterado);
+        return lancamentos;
     }
 
     @Override
@@ -43,24 +112,80 @@ public class LancamentoServiceImpl implements LancamentoService {
     public Lancamento atualizar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
         validar(lancamento);
-        return repository.save(lancamento);
+        repository.findById(lancamento.getId()).ifPresent(anterior -> { // estorna o estado anterior antes do merge sobrescrever
+            saldoService.estornar(anterior);
+            resumoService.estornar(anterior);
+            indiceTextual.remover(anterior);
+            alterado(idUsuario(anterior)); // o lancamento pode ter mudado de usuario
+        });
+        Lancamento atualizado = repository.save(lancamento);
+        saldoService.registrar(atualizado);
+        resumoService.registrar(atualizado);
+        indiceTextual.indexar(atualizado);
+        alterado(idUsuario(atualizado));
+        return atualizado;
     }
 
     @Override
     @Transactional
     public void deletar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
+        saldoService.estornar(lancamento);
+        resumoService.estornar(lancamento);
         repository.delete(lancamento);
+        indiceTextual.remover(lancamento);
+        alterado(idUsuario(lancamento));
+    }
+
+    @Override // sem transacao aqui: acerto no cache so abre a conexao da leitura da versao (VersaoLancamentos), a consulta do repositorio ja eh readOnly
+    public List<LancamentoResumido> buscar(Lancamento lancamentoFiltro) {
+        // igualdade em usuario, ano, mes, tipo e status + prefixo na descricao normalizada (antes: Example com lower(...) like '%x%')
+        validarPeriodo(lancamentoFiltro);
+        List<Object> parametros = Arrays.asList(lancamentoFiltro.getDescricao(), lancamentoFiltro.getMes(), lancamentoFiltro.getAno(), lancamentoFiltro.getTipo(), lancamentoFiltro.getStatus(),
+                lancamentoFiltro.getCompetenciaDe(), lancamentoFiltro.getCompetenciaAte());
+        return cache.obter(idUsuario(lancamentoFiltro), "buscar", parametros, () -> List.copyOf(filtrar(lancamentoFiltro))); // copia imutavel de records, a lista eh compartilhada entre requisicoes
+    }
+
+    private void validarPeriodo(Lancamento lancamentoFiltro) {
+        if (lancamentoFiltro.getCompetenciaDe() != null && lancamentoFiltro.getCompetenciaAte() != null
+                && lancamentoFiltro.getCompetenciaDe().isAfter(lancamentoFiltro.getCompetenciaAte())) {
+            throw new RegraNegocioException("Informe um período válido.");
+        }
+    }
+
+    private List<LancamentoResumido> filtrar(Lancamento lancamentoFiltro) {
+        boolean temDescricao = lancamentoFiltro.getDescricao() != null && !lancamentoFiltro.getDescricao().isBlank();
+        if (temDescricao && indiceTextual.isHabilitado() && idUsuario(lancamentoFiltro) != null) {
+            long[] ids = indiceTextual.buscar(idUsuario(lancamentoFiltro), lancamentoFiltro.getDescricao()); // casamento em memoria
+            return ids.length == 0 ? List.of() : repository.buscarPorFiltroEIds(lancamentoFiltro, ids);
+        }
+        return repository.buscarPorFiltro(lancamentoFiltro);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<LancamentoResumido> buscar(Lancamento lancamentoFiltro, CursorLancamento cursor, int limite) {
+        if (idUsuario(lancamentoFiltro) == null) {
+            throw new RegraNegocioException("Informe um Usuário.");
+        }
+        validarPeriodo(lancamentoFiltro);
+
+        int tamanho = Math.min(Math.max(limite, 1), LIMITE_MAXIMO);
+        if (cursor == null) { // primeira pagina
+            return repository.buscarPaginaPorFiltro(lancamentoFiltro, null, null, null, tamanho);
+        }
+        return repository.buscarPaginaPorFiltro(lancamentoFiltro, cursor.ano(), cursor.mes(), cursor.id(), tamanho);
     }
 
     @Override
-    @Transactional(readOnly = true) // apenas leitura
-    public List<Lancamento> buscar(Lancamento lancamentoFiltro) { //Example pega as propriedades populadas
-        Example example = Example.of(lancamentoFiltro, ExampleMatcher.matching().withIgnoreCase().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)); //  busca somente com as informacoes populadas passadas
-        // funcionalidade do spring data, pega instancia do objeto com os dados passados, faz a consulta
-        // ExampleMatcher.matching().withIgnoreCase() - ignora se as strings estão de caixa alta ou baixa
-        //withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING) - parecido com like, possui também para inicio ou que terminam em ..
-        return repository.findAll(example);
+    @Transactional(readOnly = true) // o stream precisa da transacao (e da conexao) aberta ate o fim
+    public void percorrer(Long idUsuario, Consumer<Lancamento> consumidor) {
+        try (Stream<Lancamento> lancamentos = repository.percorrerPorUsuario(idUsuario)) {
+            lancamentos.forEach(lancamento -> {
+                consumidor.accept(lancamento);
+                entityManager.detach(lancamento); // o contexto de persistencia nao cresce com o numero de linhas
+            });
+        }
     }
 
     @Override
@@ -69,6 +194,33 @@ public class LancamentoServiceImpl implements LancamentoService {
         atualizar(lancamento);
     }
 
+    @Override
+    @Transactional
+    public int atualizarStatusEmLote(Lancamento filtro, List<Long> ids, StatusLancamento status) {
+        Long idUsuario = idUsuario(filtro);
+        if (idUsuario == null) {
+            throw new RegraNegocioException("Informe um Usuário.");
+        }
+        if (status == null) {
+            throw new RegraNegocioException("Informe um status válido.");
+        }
+        if ((ids == null || ids.isEmpty()) && filtro.getAno() == null) { // sem ids nem ano o update pegaria todo o historico
+            throw new RegraNegocioException("Informe os lançamentos ou o ano.");
+        }
+        if (ids != null && ids.size() > TAMANHO_MAXIMO_TRANSICAO) {
+            throw new RegraNegocioException("Informe no máximo " + TAMANHO_MAXIMO_TRANSICAO + " lançamentos por atualização.");
+        }
+
+        // o filtro sempre leva o usuario: ids de outro usuario simplesmente nao casam
+        repository.travarParaTransicao(filtro, ids, status); // linhas travadas ate o commit: totais e update enxergam o mesmo conjunto
+        List<TotalMensal> totais = repository.obterTotaisParaTransicao(filtro, ids, status);
+        int atualizados = repository.atualizarStatusPorFiltro(filtro, ids, status);
+        saldoService.transferirStatus(idUsuario, totais, status); // move os totais agrupados, nao lancamento a lancamento
+        resumoService.transferirStatus(idUsuario, totais, status);
+        alterado(idUsuario); // a descricao nao muda, o indice textual fica como esta
+        return atualizados;
+    }
+
     @Override
     public void validar(Lancamento lancamento) {
 
@@ -87,6 +239,11 @@ public class LancamentoServiceImpl implements LancamentoService {
         if (lancamento.getValor() == null || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1) {
             throw new RegraNegocioException("Informe uma Valor válido.");
         }
+        try {
+            AcumuladorMonetario.centavos(lancamento.getValor()); // somas em centavos: no maximo 2 casas decimais e dentro do long
+        } catch (ArithmeticException e) {
+            throw new RegraNegocioException("Informe um Valor com no máximo 2 casas decimais.");
+        }
         if (lancamento.getTipo() == null) {
             throw new RegraNegocioException("Informe um Tipo de lançamento.");
         }
@@ -99,19 +256,20 @@ public class LancamentoServiceImpl implements LancamentoService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public BigDecimal obterSaldoPorUsuario(Long id) {
-        BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA);
-        BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA);
+    public long obterVersao(Long idUsuario) {
+        return versoes.obter(idUsuario);
+    }
 
-        if (receitas == null) {
-            receitas = BigDecimal.ZERO;
-        }
+    @Override
+    public BigDecimal obterSaldoPorUsuario(Long id) {
+        return cache.obter(id, "saldo", List.of(), () -> saldoService.obterSaldo(id)); // le o saldo materializado em vez de somar todos os lancamentos
+    }
 
-        if (despesas == null) {
-            despesas = BigDecimal.ZERO;
-        }
+    private void alterado(Long idUsuario) { // toda escrita troca a versao do usuario: novo ETag e novas chaves no cache
+        versoes.incrementar(idUsuario);
+    }
 
-        return receitas.subtract(despesas);
+    private Long idUsuario(Lancamento lancamento) {
+        return lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
     }
 }
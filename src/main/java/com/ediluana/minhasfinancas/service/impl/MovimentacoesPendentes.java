@@ -0,0 +1,54 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+final class MovimentacoesPendentes<K, V> {
+    // movimentacoes de saldo/resumo acumuladas na transacao e gravadas no beforeCommit, em ordem de chave:
+    // transacoes que tocam as mesmas linhas travam na mesma ordem (sem deadlock) e seguram as travas so ate o commit
+    // estorno + registro na mesma chave (atualizar sem trocar tipo/status) viram uma gravacao so
+
+    private final Comparator<K> ordem;
+    private final BinaryOperator<V> somar;
+    private final Consumer<SortedMap<K, V>> gravar;
+
+    MovimentacoesPendentes(Comparator<K> ordem, BinaryOperator<V> somar, Consumer<SortedMap<K, V>> gravar) {
+        this.ordem = ordem;
+        this.somar = somar;
+        this.gravar = gravar;
+    }
+
+    @SuppressWarnings("unchecked")
+    void acumular(K chave, V valor) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) { // fora de transacao (benchmark): grava na hora
+            SortedMap<K, V> avulsa = new TreeMap<>(ordem);
+            avulsa.put(chave, valor);
+            gravar.accept(avulsa);
+            return;
+        }
+        SortedMap<K, V> pendentes = (SortedMap<K, V>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            SortedMap<K, V> daTransacao = new TreeMap<>(ordem);
+            TransactionSynchronizationManager.bindResource(this, daTransacao);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    gravar.accept(daTransacao);
+                }
+
+                @Override
+                public void afterCompletion(int status) { // commit ou rollback: nada fica para a proxima transacao da thread
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MovimentacoesPendentes.this);
+                }
+            });
+            pendentes = daTransacao;
+        }
+        pendentes.merge(chave, valor, somar);
+    }
+}
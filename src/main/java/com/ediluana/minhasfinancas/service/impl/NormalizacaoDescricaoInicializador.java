@@ -0,0 +1,37 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import com.ediluana.minhasfinancas.model.util.Texto;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Component
+public class NormalizacaoDescricaoInicializador {
+    // preenche descricao_normalizada dos lancamentos gravados antes da coluna existir, em lotes de 500
+
+    private final LancamentoRepository repository;
+    private final TransactionTemplate transacao;
+
+    public NormalizacaoDescricaoInicializador(LancamentoRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preencher() {
+        List<Lancamento> lote;
+        do {
+            lote = transacao.execute(status -> {
+                List<Lancamento> pendentes = repository.findTop500ByDescricaoNormalizadaIsNullAndDescricaoIsNotNull();
+                pendentes.forEach(l -> l.setDescricaoNormalizada(Texto.normalizar(l.getDescricao()))); // gravado no commit pelo dirty checking
+                return pendentes;
+            });
+        } while (lote != null && lote.size() == 500);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import com.ediluana.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.ediluana.minhasfinancas.service.ResumoService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ResumoInicializador {
+    // reconstroi o resumo mensal dos usuarios com lancamentos e sem resumo (ou com linha de status nulo)
+    // um usuario por transacao; nas subidas seguintes a consulta volta vazia
+
+    private final ResumoMensalRepository repository;
+    private final ResumoService resumoService;
+
+    public ResumoInicializador(ResumoMensalRepository repository, ResumoService resumoService) {
+        this.repository = repository;
+        this.resumoService = resumoService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preencher() {
+        repository.obterUsuariosSemResumo().forEach(resumoService::reconstruir); // reconstruir ja eh @Transactional
+    }
+}
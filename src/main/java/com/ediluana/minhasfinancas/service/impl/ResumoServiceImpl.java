@@ -0,0 +1,163 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.ResumoMensal;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.TotalMensal;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import com.ediluana.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.ediluana.minhasfinancas.model.util.AcumuladorMonetario;
+import com.ediluana.minhasfinancas.service.ResumoService;
+import com.ediluana.minhasfinancas.service.cache.VersaoLancamentos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+@Service
+public class ResumoServiceImpl implements ResumoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumoServiceImpl.class);
+
+    private final ResumoMensalRepository repository;
+    private final LancamentoRepository lancamentoRepository;
+    private final VersaoLancamentos versoes;
+    private final MovimentacoesPendentes<ChaveResumo, Movimento> pendentes = new MovimentacoesPendentes<>(ChaveResumo.ORDEM, Movimento::somar, this::gravar);
+
+    public ResumoServiceImpl(ResumoMensalRepository repository, LancamentoRepository lancamentoRepository, VersaoLancamentos versoes) {
+        this.repository = repository;
+        this.lancamentoRepository = lancamentoRepository;
+        this.versoes = versoes;
+    }
+
+    @Override
+    @Transactional
+    public void registrar(Lancamento lancamento) {
+        movimentar(lancamento, lancamento.getValor(), 1);
+    }
+
+    @Override
+    @Transactional
+    public void estornar(Lancamento lancamento) {
+        if (lancamento.getValor() != null) {
+            movimentar(lancamento, lancamento.getValor().negate(), -1);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void registrarTodos(List<Lancamento> lancamentos) { // lote: uma movimentacao por mes/tipo/status, nao por lancamento
+        lancamentos.stream().filter(l -> l.getValor() != null && l.getUsuario() != null && l.getUsuario().getId() != null)
+                .collect(Collectors.groupingBy(l -> Arrays.asList(l.getUsuario().getId(), l.getAno(), l.getMes(), l.getTipo(), statusDoResumo(l.getStatus())),
+                        LinkedHashMap::new, AcumuladorMonetario.somando(Lancamento::getValor)))
+                .forEach((chave, soma) -> movimentar((Long) chave.get(0), (Integer) chave.get(1), (Integer) chave.get(2), (TipoLancamento) chave.get(3),
+                        (StatusLancamento) chave.get(4), soma.total(), soma.quantidade()));
+    }
+
+    @Override
+    @Transactional
+    public void transferirStatus(Long idUsuario, List<TotalMensal> totais, StatusLancamento novoStatus) { // totais ainda com o status antigo
+        for (TotalMensal total : totais) {
+            movimentar(idUsuario, total.getAno(), total.getMes(), total.getTipo(), total.getStatus(), total.getTotal().negate(), -total.getQuantidade());
+            movimentar(idUsuario, total.getAno(), total.getMes(), total.getTipo(), novoStatus, total.getTotal(), total.getQuantidade());
+        }
+    }
+
+    private void movimentar(Lancamento lancamento, BigDecimal valor, long quantidade) {
+        if (lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null) {
+            return;
+        }
+        movimentar(lancamento.getUsuario().getId(), lancamento.getAno(), lancamento.getMes(), lancamento.getTipo(), lancamento.getStatus(), valor, quantidade);
+    }
+
+    private void movimentar(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status, BigDecimal valor, long quantidade) {
+        if (ano == null || mes == null || tipo == null || valor == null) {
+            return;
+        }
+        pendentes.acumular(new ChaveResumo(idUsuario, ano, mes, tipo, statusDoResumo(status)), new Movimento(valor, quantidade)); // gravado no commit, como o saldo
+    }
+
+    private void gravar(SortedMap<ChaveResumo, Movimento> movimentacoes) {
+        Set<Long> reconstruidos = new HashSet<>();
+        movimentacoes.forEach((chave, movimento) -> {
+            if (reconstruidos.contains(chave.idUsuario()) || (movimento.valor().signum() == 0 && movimento.quantidade() == 0)) {
+                return; // a reconstrucao ja leu os lancamentos desta transacao
+            }
+            if (movimento.quantidade() > 0) {
+                repository.movimentar(chave.idUsuario(), chave.ano(), chave.mes(), chave.tipo(), chave.status(), movimento.valor(), movimento.quantidade()); // upsert
+                return;
+            }
+            int alterados = repository.baixar(chave.idUsuario(), chave.ano(), chave.mes(), chave.tipo(), chave.status(), movimento.valor(), movimento.quantidade());
+            if (alterados == 0) { // estorno de mes sem linha ou maior que a linha: o resumo ja estava errado, nao grava quantidade negativa
+                log.warn("resumo mensal divergente do usuario {} em {}/{} {} {}: reconstruindo", chave.idUsuario(), chave.mes(), chave.ano(), chave.tipo(), chave.status());
+                reconstruir(chave.idUsuario());
+                reconstruidos.add(chave.idUsuario());
+                return;
+            }
+            repository.removerSeVazio(chave.idUsuario(), chave.ano(), chave.mes(), chave.tipo(), chave.status());
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensal> obterResumo(Long idUsuario, Integer anoInicial, Integer anoFinal) {
+        int inicio = anoInicial == null ? 0 : anoInicial;
+        int fim = anoFinal == null ? 9999 : anoFinal;
+
+        if (inicio > fim) {
+            throw new RegraNegocioException("Informe um intervalo de anos válido.");
+        }
+
+        return repository.findByIdUsuarioAndAnoBetweenOrderByAnoAscMesAsc(idUsuario, inicio, fim);
+    }
+
+    @Override
+    @Transactional
+    public void reconstruir(Long idUsuario) {
+        repository.deletarPorUsuario(idUsuario);
+
+        Map<List<Object>, ResumoMensal> resumos = new LinkedHashMap<>(); // nulo e PENDENTE do mesmo mes caem na mesma linha
+        for (TotalMensal total : lancamentoRepository.obterTotaisMensais(idUsuario)) {
+            if (total.getAno() == null || total.getMes() == null || total.getTipo() == null || total.getTotal() == null) {
+                continue; // mesma regra do movimentar: incompleto nao entra no resumo
+            }
+            StatusLancamento status = statusDoResumo(total.getStatus());
+            ResumoMensal resumo = resumos.computeIfAbsent(Arrays.asList(total.getAno(), total.getMes(), total.getTipo(), status),
+                    chave -> ResumoMensal.builder().idUsuario(idUsuario).ano(total.getAno()).mes(total.getMes()).tipo(total.getTipo())
+                            .status(status).valor(BigDecimal.ZERO).quantidade(0L).build());
+            resumo.setValor(resumo.getValor().add(total.getTotal()));
+            resumo.setQuantidade(resumo.getQuantidade() + total.getQuantidade());
+        }
+
+        repository.saveAll(resumos.values());
+        versoes.incrementar(idUsuario); // leituras do resumo guardadas na versao anterior deixam de valer
+    }
+
+    private StatusLancamento statusDoResumo(StatusLancamento status) { // mesmo sentinela do saldo
+        return status == null ? StatusLancamento.PENDENTE : status;
+    }
+
+    record ChaveResumo(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status) {
+        static final Comparator<ChaveResumo> ORDEM = Comparator.comparing(ChaveResumo::idUsuario).thenComparing(ChaveResumo::ano)
+                .thenComparing(ChaveResumo::mes).thenComparing(ChaveResumo::tipo).thenComparing(ChaveResumo::status);
+    }
+
+    record Movimento(BigDecimal valor, long quantidade) {
+        Movimento somar(Movimento outro) {
+            return new Movimento(valor.add(outro.valor), quantidade + outro.quantidade);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import com.ediluana.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.ediluana.minhasfinancas.service.SaldoService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SaldoInicializador {
+    // reconstroi o saldo materializado dos usuarios com lancamentos e sem linhas de saldo (ou com linha de status nulo)
+    // um usuario por transacao; nas subidas seguintes a consulta volta vazia
+
+    private final SaldoUsuarioRepository repository;
+    private final SaldoService saldoService;
+
+    public SaldoInicializador(SaldoUsuarioRepository repository, SaldoService saldoService) {
+        this.repository = repository;
+        this.saldoService = saldoService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preencher() {
+        repository.obterUsuariosSemSaldo().forEach(saldoService::reconstruir); // reconstruir ja eh @Transactional
+    }
+}
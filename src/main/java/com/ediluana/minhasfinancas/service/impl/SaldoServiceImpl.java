@@ -0,0 +1,161 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.SaldoUsuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.TotalMensal;
+import com.ediluana.minhasfinancas.model.projection.TotalPorTipoEStatus;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import com.ediluana.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.ediluana.minhasfinancas.model.util.AcumuladorMonetario;
+import com.ediluana.minhasfinancas.service.SaldoService;
+import com.ediluana.minhasfinancas.service.cache.VersaoLancamentos;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+@Service
+public class SaldoServiceImpl implements SaldoService {
+
+    private final SaldoUsuarioRepository repository;
+    private final LancamentoRepository lancamentoRepository;
+    private final VersaoLancamentos versoes;
+    private final MovimentacoesPendentes<ChaveSaldo, BigDecimal> pendentes = new MovimentacoesPendentes<>(ChaveSaldo.ORDEM, BigDecimal::add, this::gravar);
+
+    public SaldoServiceImpl(SaldoUsuarioRepository repository, LancamentoRepository lancamentoRepository, VersaoLancamentos versoes) {
+        this.repository = repository;
+        this.lancamentoRepository = lancamentoRepository;
+        this.versoes = versoes;
+    }
+
+    @Override
+    @Transactional // participa da transacao de quem escreveu o lancamento
+    public void registrar(Lancamento lancamento) {
+        movimentar(lancamento, lancamento.getValor());
+    }
+
+    @Override
+    @Transactional
+    public void estornar(Lancamento lancamento) {
+        if (lancamento.getValor() != null) {
+            movimentar(lancamento, lancamento.getValor().negate());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void registrarTodos(List<Lancamento> lancamentos) { // lote: uma movimentacao por linha do saldo, nao por lancamento
+        lancamentos.stream().filter(l -> l.getValor() != null && l.getUsuario() != null && l.getUsuario().getId() != null) // incompleto nao entra no saldo
+                .collect(Collectors.groupingBy(l -> Arrays.asList(l.getUsuario().getId(), l.getTipo(), statusDoSaldo(l.getStatus())), LinkedHashMap::new, AcumuladorMonetario.somando(Lancamento::getValor)))
+                .forEach((chave, soma) -> movimentar((Long) chave.get(0), (TipoLancamento) chave.get(1), (StatusLancamento) chave.get(2), soma.total()));
+    }
+
+    @Override
+    @Transactional
+    public void transferirStatus(Long idUsuario, List<TotalMensal> totais, StatusLancamento novoStatus) { // totais ainda com o status antigo
+        totais.stream()
+                .collect(Collectors.groupingBy(total -> Arrays.asList(total.getTipo(), statusDoSaldo(total.getStatus())), LinkedHashMap::new, Collectors.toList()))
+                .values().forEach(grupo -> {
+                    BigDecimal valor = grupo.stream().collect(AcumuladorMonetario.somando(TotalMensal::getTotal)).total();
+                    movimentar(idUsuario, grupo.get(0).getTipo(), statusDoSaldo(grupo.get(0).getStatus()), valor.negate());
+                    movimentar(idUsuario, grupo.get(0).getTipo(), novoStatus, valor);
+                });
+    }
+
+    private void movimentar(Lancamento lancamento, BigDecimal valor) {
+        if (lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null) {
+            return; // lancamento incompleto nao entra no saldo
+        }
+        movimentar(lancamento.getUsuario().getId(), lancamento.getTipo(), lancamento.getStatus(), valor);
+    }
+
+    private void movimentar(Long idUsuario, TipoLancamento tipo, StatusLancamento status, BigDecimal valor) {
+        if (tipo == null || valor == null) {
+            return;
+        }
+        pendentes.acumular(new ChaveSaldo(idUsuario, tipo, statusDoSaldo(status)), valor); // gravado no commit, ver MovimentacoesPendentes
+    }
+
+    private void gravar(SortedMap<ChaveSaldo, BigDecimal> movimentacoes) {
+        movimentacoes.forEach((chave, valor) -> {
+            if (valor.signum() != 0) { // estorno e registro que se anulam nao tocam a linha
+                repository.movimentar(chave.idUsuario(), chave.tipo(), chave.status(), valor); // upsert: cria ou soma sem select for update
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obterSaldo(Long idUsuario) {
+        AcumuladorMonetario saldo = new AcumuladorMonetario();
+        for (SaldoUsuario parcial : repository.findByIdUsuario(idUsuario)) { // no maximo uma linha por tipo e status
+            if (parcial.getTipo() == TipoLancamento.RECEITA) {
+                saldo.somar(parcial.getValor());
+            } else {
+                saldo.subtrair(parcial.getValor());
+            }
+        }
+        return saldo.total();
+    }
+
+    @Override
+    @Transactional
+    public void reconstruir(Long idUsuario) {
+        repository.deletarPorUsuario(idUsuario);
+
+        List<SaldoUsuario> saldos = lancamentoRepository.obterTotaisPorTipoEStatus(idUsuario).stream()
+                .collect(Collectors.groupingBy(total -> Arrays.asList(total.getTipo(), statusDoSaldo(total.getStatus())), LinkedHashMap::new,
+                        AcumuladorMonetario.somando(TotalPorTipoEStatus::getTotal))) // nulo e PENDENTE caem na mesma linha
+                .entrySet().stream()
+                .map(e -> SaldoUsuario.builder().idUsuario(idUsuario).tipo((TipoLancamento) e.getKey().get(0)).status((StatusLancamento) e.getKey().get(1))
+                        .valor(e.getValue().total()).build())
+                .collect(Collectors.toList());
+
+        repository.saveAll(saldos);
+        versoes.incrementar(idUsuario); // o saldo lido pela api muda: novo ETag e novas chaves no cache, como numa escrita de lancamento
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean verificar(Long idUsuario) { // compara o saldo materializado com a soma dos lancamentos
+        Map<String, BigDecimal> materializado = new HashMap<>();
+        for (SaldoUsuario saldo : repository.findByIdUsuario(idUsuario)) {
+            materializado.put(chave(saldo.getTipo(), saldo.getStatus()), saldo.getValor());
+        }
+
+        Map<String, BigDecimal> calculado = new HashMap<>();
+        for (TotalPorTipoEStatus total : lancamentoRepository.obterTotaisPorTipoEStatus(idUsuario)) {
+            calculado.merge(chave(total.getTipo(), statusDoSaldo(total.getStatus())), total.getTotal(), BigDecimal::add);
+        }
+
+        materializado.values().removeIf(valor -> valor.signum() == 0); // linhas zeradas por estorno equivalem a ausencia
+        calculado.values().removeIf(valor -> valor.signum() == 0);
+
+        if (!materializado.keySet().equals(calculado.keySet())) {
+            return false;
+        }
+        return materializado.entrySet().stream().allMatch(e -> e.getValue().compareTo(calculado.get(e.getKey())) == 0);
+    }
+
+    private StatusLancamento statusDoSaldo(StatusLancamento status) { // unico sentinela para lancamento sem status
+        return status == null ? StatusLancamento.PENDENTE : status;
+    }
+
+    private String chave(Object tipo, Object status) {
+        return tipo + ":" + status;
+    }
+
+    record ChaveSaldo(Long idUsuario, TipoLancamento tipo, StatusLancamento status) {
+        static final Comparator<ChaveSaldo> ORDEM = Comparator.comparing(ChaveSaldo::idUsuario).thenComparing(ChaveSaldo::tipo).thenComparing(ChaveSaldo::status);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Component
+public class SequenciaLancamentoInicializador implements SmartInitializingSingleton {
+    // lancamento.id passou de identity para a sequence financas.lancamento_seq (incremento 50, otimizador pooled).
+    // Em bases postgres existentes a sequence nasce em 1: avanca para depois do maior id antes do servidor aceitar requisicoes
+    // so quando max(id) >= last_value (linhas da era identity a frente da sequence): numa subida normal o bloco (last_value - 49 .. last_value)
+    // pode estar com outra instancia, e mexer na sequence ai daria chave duplicada
+
+    private static final Logger log = LoggerFactory.getLogger(SequenciaLancamentoInicializador.class);
+
+    static final long TRAVA = 0x6C616E63L; // chave do pg_advisory_xact_lock: instancias subindo juntas alinham uma de cada vez
+
+    static final String ALINHAR = "select setval('financas.lancamento_seq', m.maximo + 50, false)"
+            + " from (select coalesce(max(id), 0) as maximo from financas.lancamento) m, financas.lancamento_seq s"
+            + " where m.maximo >= s.last_value";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenciaLancamentoInicializador(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+                if (!"PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName())) {
+                    return null; // h2 dos testes cria tabela e sequence do zero
+                }
+                alinhar(conexao);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível alinhar a sequence financas.lancamento_seq", e);
+        }
+    }
+
+    static void alinhar(Connection conexao) throws SQLException {
+        // o pooled usa (nextval - 49 .. nextval): o proximo nextval precisa ficar 50 acima do maior id
+        boolean autoCommit = conexao.getAutoCommit();
+        conexao.setAutoCommit(false);
+        try (Statement sql = conexao.createStatement()) {
+            sql.execute("select pg_advisory_xact_lock(" + TRAVA + ")"); // solto no commit
+            try (ResultSet alinhada = sql.executeQuery(ALINHAR)) {
+                if (alinhada.next()) {
+                    log.info("Sequence financas.lancamento_seq alinhada para {}.", alinhada.getLong(1));
+                }
+            }
+            conexao.commit();
+        } catch (SQLException e) {
+            conexao.rollback();
+            throw e;
+        } finally {
+            conexao.setAutoCommit(autoCommit);
+        }
+    }
+}
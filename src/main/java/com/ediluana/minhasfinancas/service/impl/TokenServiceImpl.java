@@ -0,0 +1,94 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import com.ediluana.minhasfinancas.service.TokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+@Service
+public class TokenServiceImpl implements TokenService {
+    // token = base64url("<idUsuario>.<expiracao em segundos>") + "." + base64url(hmac-sha256 do payload)
+    // validado so com a chave em memoria, sem consulta ao banco
+
+    private static final Logger log = LoggerFactory.getLogger(TokenServiceImpl.class);
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final SecretKeySpec chave;
+    private final Duration validade;
+    private final ThreadLocal<Mac> macs; // Mac nao eh thread-safe
+
+    public TokenServiceImpl(@Value("${minhasfinancas.token.segredo:}") String segredo,
+                            @Value("${minhasfinancas.token.validade:PT8H}") Duration validade) {
+        byte[] bytes;
+        if (segredo == null || segredo.isBlank()) {
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+            log.warn("minhasfinancas.token.segredo nao configurado: usando chave aleatoria, tokens nao sobrevivem a reinicio");
+        } else {
+            bytes = segredo.getBytes(StandardCharsets.UTF_8);
+        }
+        this.chave = new SecretKeySpec(bytes, ALGORITMO);
+        this.validade = validade;
+        this.macs = ThreadLocal.withInitial(this::criarMac);
+    }
+
+    @Override
+    public String gerar(Long idUsuario) {
+        long expiracao = System.currentTimeMillis() / 1000 + validade.toSeconds();
+        byte[] payload = (idUsuario + "." + expiracao).getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(assinar(payload));
+    }
+
+    @Override
+    public Long validar(String token) { // id do usuario, ou null se o token for invalido ou estiver expirado
+        if (token == null) {
+            return null;
+        }
+        int separador = token.indexOf('.');
+        if (separador <= 0 || separador != token.lastIndexOf('.')) {
+            return null;
+        }
+
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(0, separador));
+            byte[] assinatura = Base64.getUrlDecoder().decode(token.substring(separador + 1));
+            if (!MessageDigest.isEqual(assinar(payload), assinatura)) {
+                return null;
+            }
+
+            String[] partes = new String(payload, StandardCharsets.UTF_8).split("\\.");
+            if (partes.length != 2 || Long.parseLong(partes[1]) < System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            return Long.valueOf(partes[0]);
+        } catch (IllegalArgumentException e) { // base64 ou numero malformado
+            return null;
+        }
+    }
+
+    private byte[] assinar(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac criarMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITMO + " indisponivel", e);
+        }
+    }
+}
@@ -5,8 +5,14 @@ import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
 import com.ediluana.minhasfinancas.model.entity.Usuario;
 import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
 import com.ediluana.minhasfinancas.service.UsuarioService;
+import com.ediluana.minhasfinancas.service.cache.EmailsCadastrados;
+import com.ediluana.minhasfinancas.service.seguranca.CodificadorSenha;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -17,12 +23,22 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Autowired
     private UsuarioRepository repository;
 
-    public UsuarioServiceImpl(UsuarioRepository repository) {
+    private final CodificadorSenha codificador;
+
+    private final EmailsCadastrados emails;
+
+    private final Cache<Long, Boolean> idsExistentes; // so ids confirmados; nao ha exclusao de usuario na api
+
+    public UsuarioServiceImpl(UsuarioRepository repository, CodificadorSenha codificador, EmailsCadastrados emails, @Value("${minhasfinancas.usuarios.ids-em-cache:100000}") long idsEmCache) {
         super();
         this.repository = repository;
+        this.codificador = codificador;
+        this.emails = emails;
+        this.idsExistentes = Caffeine.newBuilder().maximumSize(idsEmCache).build();
     }
 
     @Override
+    @Transactional
     public Usuario autenticar(String email, String senha) {
         Optional<Usuario> usuario = repository.findByEmail(email);
 
@@ -30,10 +46,15 @@ public class UsuarioServiceImpl implements UsuarioService {
             throw new ErroAutenticacao("Usuário não encontrado para o email informado");
         }
 
-        if (!usuario.get().getSenha().equals(senha)) {
+        if (!codificador.confere(senha, usuario.get().getSenha())) {
             throw new ErroAutenticacao("Senha inválida");
         }
 
+        if (codificador.precisaRecodificar(usuario.get().getSenha())) { // senha em texto puro ou custo antigo: regrava com o hash atual
+            usuario.get().setSenha(codificador.codificar(senha));
+            repository.save(usuario.get());
+        }
+
         return usuario.get();
     }
 
@@ -41,12 +62,25 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Transactional // criar base de dados, abrir uma transação e executar para depois commitar
     public Usuario salvarUsuario(Usuario usuario) {
         validarEmail(usuario.getEmail());
-        return repository.save(usuario);
+        if (usuario.getSenha() != null) {
+            usuario.setSenha(codificador.codificar(usuario.getSenha())); // nunca grava a senha em texto puro
+        }
+        Usuario salvo;
+        try {
+            salvo = repository.save(usuario); // insert imediato (identity): a violacao do indice unico aparece aqui
+        } catch (DataIntegrityViolationException e) { // outro cadastro com o mesmo email passou pela validacao ao mesmo tempo
+            throw new RegraNegocioException("Já existe um usuário cadastrado com este email.");
+        }
+        emails.adicionar(usuario.getEmail());
+        if (salvo != null && salvo.getId() != null) {
+            idsExistentes.put(salvo.getId(), Boolean.TRUE);
+        }
+        return salvo;
     }
 
     @Override
     public void validarEmail(String email) {
-        boolean existe = repository.existsByEmail(email);
+        boolean existe = emails.talvezExista(email) && repository.existsByEmail(email); // email fora do filtro nao foi cadastrado
         if (existe) {
             throw new RegraNegocioException("Já existe um usuário cadastrado com este email.");
         }
@@ -56,4 +90,27 @@ public class UsuarioServiceImpl implements UsuarioService {
     public Optional<Usuario> obterPorId(Long id) {
         return repository.findById(id);
     }
+
+    @Override
+    public boolean existe(Long id) {
+        if (id == null) {
+            return false;
+        }
+        if (idsExistentes.getIfPresent(id) != null) {
+            return true; // sem consulta
+        }
+        boolean existe = repository.existsById(id); // id inexistente nao fica em cache, pode ser cadastrado depois
+        if (existe) {
+            idsExistentes.put(id, Boolean.TRUE);
+        }
+        return existe;
+    }
+
+    @Override
+    public Usuario obterReferencia(Long id) { // proxy so com o id, basta para a FK do lancamento
+        if (!existe(id)) {
+            throw new RegraNegocioException("Usuário não encontrado para o Id informado");
+        }
+        return repository.getReferenceById(id);
+    }
 }
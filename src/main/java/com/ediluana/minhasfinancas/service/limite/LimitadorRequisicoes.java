@@ -0,0 +1,97 @@
+package com.ediluana.minhasfinancas.service.limite;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+@Component
+public class LimitadorRequisicoes {
+    // token bucket por chave (ip ou email), sem lock: cada balde guarda so o instante teorico da proxima ficha (GCRA) num AtomicLong
+    // os baldes ficam num cache limitado e saem depois de um tempo sem uso
+
+    public enum Limite { LOGIN_IP, LOGIN_EMAIL, ESCRITA_IP }
+
+    private final boolean habilitado;
+    private final Taxa login;
+    private final Taxa escrita;
+    private final LongSupplier relogio;
+    private final Cache<Chave, Balde> baldes;
+
+    @Autowired
+    public LimitadorRequisicoes(@Value("${minhasfinancas.limite.habilitado:true}") boolean habilitado,
+                                @Value("${minhasfinancas.limite.login.capacidade:10}") int capacidadeLogin,
+                                @Value("${minhasfinancas.limite.login.reposicao:PT1M}") Duration reposicaoLogin,
+                                @Value("${minhasfinancas.limite.escrita.capacidade:300}") int capacidadeEscrita,
+                                @Value("${minhasfinancas.limite.escrita.reposicao:PT1M}") Duration reposicaoEscrita,
+                                @Value("${minhasfinancas.limite.maximo-chaves:100000}") long maximoChaves) {
+        this(habilitado, new Taxa(capacidadeLogin, reposicaoLogin), new Taxa(capacidadeEscrita, reposicaoEscrita), maximoChaves, System::nanoTime);
+    }
+
+    LimitadorRequisicoes(boolean habilitado, Taxa login, Taxa escrita, long maximoChaves, LongSupplier relogio) {
+        this.habilitado = habilitado;
+        this.login = login;
+        this.escrita = escrita;
+        this.relogio = relogio;
+        Duration inatividade = login.reposicao().compareTo(escrita.reposicao()) > 0 ? login.reposicao() : escrita.reposicao();
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(maximoChaves) // memoria limitada mesmo com ips aleatorios
+                .expireAfterAccess(inatividade) // parado por um periodo de reposicao o balde estaria cheio de novo
+                .build();
+    }
+
+    // 0 se liberado; senao, nanossegundos ate haver uma ficha
+    public long consumir(Limite limite, String chave) {
+        if (!habilitado || chave == null) {
+            return 0;
+        }
+        Taxa taxa = limite == Limite.ESCRITA_IP ? escrita : login;
+        long agora = relogio.getAsLong();
+        return baldes.get(new Chave(limite, chave), c -> new Balde(agora)).consumir(taxa, agora);
+    }
+
+    public static long segundos(long esperaNanos) { // valor do Retry-After, arredondado para cima
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    record Taxa(int capacidade, Duration reposicao) { // capacidade fichas repostas ao longo do periodo de reposicao
+
+        long intervalo() { // nanossegundos para repor uma ficha
+            return Math.max(1, reposicao.toNanos() / capacidade);
+        }
+    }
+
+    private record Chave(Limite limite, String valor) {
+    }
+
+    private static final class Balde {
+
+        private final AtomicLong proxima; // balde cheio enquanto proxima <= agora
+
+        Balde(long agora) {
+            this.proxima = new AtomicLong(agora);
+        }
+
+        long consumir(Taxa taxa, long agora) {
+            long intervalo = taxa.intervalo();
+            long rajada = intervalo * taxa.capacidade();
+            while (true) {
+                long atual = proxima.get();
+                long nova = Math.max(atual, agora) + intervalo;
+                long excesso = nova - agora - rajada;
+                if (excesso > 0) {
+                    return excesso; // negado: o estado nao muda
+                }
+                if (proxima.compareAndSet(atual, nova)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ediluana.minhasfinancas.service.seguranca;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+@Component
+public class CodificadorSenha {
+    // PBKDF2-HMAC-SHA256 com salt aleatorio; o custo (iteracoes) fica gravado junto do hash
+    // formato: pbkdf2-sha256$<iteracoes>$<salt base64>$<hash base64>
+
+    private static final String PREFIXO = "pbkdf2-sha256";
+    private static final int TAMANHO_SALT = 16;
+    private static final int TAMANHO_HASH = 32;
+
+    private final int iteracoes;
+    private final SecureRandom random = new SecureRandom();
+
+    public CodificadorSenha(@Value("${minhasfinancas.senha.iteracoes:310000}") int iteracoes) {
+        this.iteracoes = iteracoes;
+    }
+
+    public String codificar(String senha) {
+        byte[] salt = new byte[TAMANHO_SALT];
+        random.nextBytes(salt);
+        byte[] hash = derivar(senha, salt, iteracoes);
+        return PREFIXO + "$" + iteracoes + "$" + Base64.getEncoder().encodeToString(salt) + "$" + Base64.getEncoder().encodeToString(hash);
+    }
+
+    public boolean confere(String senha, String armazenada) {
+        if (senha == null || armazenada == null) {
+            return false;
+        }
+        if (!codificada(armazenada)) { // cadastro anterior ao hash: texto puro, recodificado no proximo login
+            return MessageDigest.isEqual(senha.getBytes(StandardCharsets.UTF_8), armazenada.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String[] partes = armazenada.split("\\$");
+        byte[] salt = Base64.getDecoder().decode(partes[2]);
+        byte[] esperado = Base64.getDecoder().decode(partes[3]);
+        return MessageDigest.isEqual(esperado, derivar(senha, salt, Integer.parseInt(partes[1]))); // comparacao em tempo constante
+    }
+
+    public boolean precisaRecodificar(String armazenada) { // texto puro ou custo menor que o configurado
+        return !codificada(armazenada) || Integer.parseInt(armazenada.split("\\$")[1]) < iteracoes;
+    }
+
+    private boolean codificada(String armazenada) {
+        return armazenada.startsWith(PREFIXO + "$") && armazenada.split("\\$").length == 4;
+    }
+
+    private byte[] derivar(String senha, byte[] salt, int iteracoes) {
+        PBEKeySpec spec = new PBEKeySpec(senha.toCharArray(), salt, iteracoes, TAMANHO_HASH * 8);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 indisponivel", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+-- converte financas.lancamento (tabela comum criada pelo ddl-auto) em tabela particionada por faixa de ano
+-- migracao explicita, rodada uma vez com a aplicacao parada; depois subir com minhasfinancas.banco.particionamento.habilitado=true
+-- executar com: psql -v ON_ERROR_STOP=1 -d minhasfinancas -f src/main/resources/db/particionar-lancamento.sql
+-- uma transacao so: qualquer erro desfaz tudo e a tabela comum fica como estava
+
+begin;
+
+lock table financas.lancamento in access exclusive mode;
+
+-- ano entra na chave primaria (id, ano) e nao pode ser nulo: lancamento sem ano barra a migracao antes de tocar na tabela
+-- nao ha ano certo para inventar; corrigir ou apagar essas linhas (select id from financas.lancamento where ano is null) e rodar de novo
+do $$
+declare
+    sem_ano bigint;
+begin
+    select count(*) into sem_ano from financas.lancamento where ano is null;
+    if sem_ano > 0 then
+        raise exception '% lancamento(s) sem ano: preencha ou apague antes de particionar', sem_ano;
+    end if;
+end $$;
+
+alter table financas.lancamento rename to lancamento_legado;
+
+create table financas.lancamento (like financas.lancamento_legado including defaults including constraints) partition by range (ano);
+alter table financas.lancamento add constraint pk_lancamento_id_ano primary key (id, ano); -- a chave de uma particionada precisa conter o ano
+alter table financas.lancamento add constraint fk_lancamento_usuario foreign key (id_usuario) references financas.usuario (id);
+create table financas.lancamento_padrao partition of financas.lancamento default; -- ano fora das particoes criadas cai aqui; ano nulo nao, a chave primaria recusa
+
+-- uma particao por ano ja lancado, mais o ano atual e o proximo (os seguintes ficam com o agendamento de ParticoesLancamento)
+do $$
+declare
+    particao integer;
+begin
+    for particao in select ano from financas.lancamento_legado
+                    union select extract(year from current_date)::integer + g from generate_series(0, 1) g loop
+        execute format('create table financas.lancamento_%s partition of financas.lancamento for values from (%s) to (%s)', particao, particao, particao + 1);
+    end loop;
+end $$;
+
+insert into financas.lancamento select * from financas.lancamento_legado;
+drop table financas.lancamento_legado; -- leva junto os indices da tabela comum, inclusive idx_lancamento_usuario_data_cadastro
+
+-- os indices declarados em Lancamento mais o de prefixo da descricao (so o pattern_ops, ver IndicePrefixoDescricao); criados no pai, cada particao ganha o seu
+-- sem concurrently: nao existe para tabela particionada, e a tabela ja esta travada pela migracao
+create index idx_lancamento_usuario_ano_mes_id on financas.lancamento (id_usuario, ano, mes, id);
+create index idx_lancamento_usuario_tipo_status on financas.lancamento (id_usuario, tipo, status);
+create index idx_lancamento_usuario_competencia on financas.lancamento (id_usuario, competencia, id);
+create index idx_lancamento_usuario_descricao_prefixo on financas.lancamento (id_usuario, descricao_normalizada varchar_pattern_ops); -- ver IndicePrefixoDescricao
+
+commit;
+
+analyze financas.lancamento;
@@ -0,0 +1,41 @@
+package com.ediluana.minhasfinancas;
+
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+public final class ApoioBenchmark {
+    // o que os testes de medicao repetiam: a trava que os deixa fora do build comum e o usuario dono da massa de dados
+
+    private ApoioBenchmark() {
+    }
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true") // so roda com -Dbenchmark=true
+    public @interface Habilitado {
+    }
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @EnabledIfSystemProperty(named = "particionamento.url", matches = ".+") // so roda apontando para um PostgreSQL descartavel
+    public @interface ComPostgres {
+    }
+
+    public static Connection conectarPostgres() throws SQLException {
+        return DriverManager.getConnection(System.getProperty("particionamento.url"),
+                System.getProperty("particionamento.usuario", "postgres"), System.getProperty("particionamento.senha", "postgres"));
+    }
+
+    public static Usuario criarUsuario(UsuarioRepository repository, String nome) {
+        return repository.save(Usuario.builder().nome(nome).email(nome + "-" + System.nanoTime() + "@email.com").senha("senha").build()); // email unico a cada execucao
+    }
+}
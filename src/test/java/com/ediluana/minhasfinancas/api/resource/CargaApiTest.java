@@ -0,0 +1,185 @@
+package com.ediluana.minhasfinancas.api.resource;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import com.ediluana.minhasfinancas.service.LancamentoService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+// carga de ponta a ponta: sobe a aplicacao em H2 (modo PostgreSQL), semeia os dados e dispara leituras e escritas a taxa fixa
+// latencia medida a partir do instante planejado de cada requisicao (sem omissao coordenada), um histograma por endpoint
+// falha se algum p99 passar do limite ou se houver erro; os .hgrm ficam em target/carga
+// executar com: ./mvnw test -Dtest=CargaApiTest -Dcarga=true [-Dcarga.usuarios=20 -Dcarga.lancamentos-por-usuario=5000
+//   -Dcarga.taxa=200 -Dcarga.duracao=PT30S -Dcarga.p99.listar=PT0.25S -Dcarga.p99.saldo=PT0.05S -Dcarga.p99.salvar=PT0.1S]
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("carga")
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+public class CargaApiTest {
+
+    static final long LATENCIA_MAXIMA_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    @LocalServerPort
+    int porta;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Test
+    public void deveManterOP99DosEndpointsAbaixoDoLimite() throws Exception {
+        int usuarios = Integer.getInteger("carga.usuarios", 20);
+        int lancamentosPorUsuario = Integer.getInteger("carga.lancamentos-por-usuario", 5000);
+        int taxa = Integer.getInteger("carga.taxa", 200);
+        Duration duracao = Duration.parse(System.getProperty("carga.duracao", "PT30S"));
+
+        List<Long> ids = semear(usuarios, lancamentosPorUsuario);
+
+        // mix de leitura e escrita: listar do ano (50%), saldo (30%), novo lancamento (20%)
+        Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+        endpoints.put("listar", new Endpoint(50, limite("listar", "PT0.25S"),
+                id -> HttpRequest.newBuilder(uri("/api/lancamentos?usuario=" + id + "&ano=2024")).GET().build()));
+        endpoints.put("saldo", new Endpoint(30, limite("saldo", "PT0.05S"),
+                id -> HttpRequest.newBuilder(uri("/api/usuarios/" + id + "/saldo")).GET().build()));
+        endpoints.put("salvar", new Endpoint(20, limite("salvar", "PT0.1S"),
+                id -> HttpRequest.newBuilder(uri("/api/lancamentos")).header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"descricao\":\"carga\",\"mes\":6,\"ano\":2024,\"valor\":12.5,\"tipo\":\"DESPESA\",\"usuario\":" + id + "}")).build()));
+
+        executar(endpoints, ids, taxa, Duration.ofSeconds(5)); // aquecimento, descartado
+        endpoints.values().forEach(Endpoint::zerar);
+        executar(endpoints, ids, taxa, duracao);
+
+        Path saida = Files.createDirectories(Path.of("target", "carga"));
+        List<String> violacoes = new ArrayList<>();
+        System.out.printf("usuarios=%d lancamentos/usuario=%d taxa=%d req/s duracao=%s%n", usuarios, lancamentosPorUsuario, taxa, duracao);
+        for (Map.Entry<String, Endpoint> entrada : endpoints.entrySet()) {
+            Endpoint endpoint = entrada.getValue();
+            Histogram histograma = endpoint.latencias;
+            long p99 = histograma.getValueAtPercentile(99);
+            System.out.printf("%-7s n=%d erros=%d p50=%.1f ms p99=%.1f ms p99.9=%.1f ms max=%.1f ms limite p99=%d ms%n", entrada.getKey(),
+                    histograma.getTotalCount(), endpoint.erros.get(), histograma.getValueAtPercentile(50) / 1e3, p99 / 1e3,
+                    histograma.getValueAtPercentile(99.9) / 1e3, histograma.getMaxValue() / 1e3, endpoint.limiteP99.toMillis());
+            try (PrintStream arquivo = new PrintStream(Files.newOutputStream(saida.resolve(entrada.getKey() + ".hgrm")))) {
+                histograma.outputPercentileDistribution(arquivo, 1000.0); // em ms
+            }
+            if (p99 > endpoint.limiteP99.toNanos() / 1000) {
+                violacoes.add(entrada.getKey() + ": p99 " + p99 / 1000 + " ms > " + endpoint.limiteP99.toMillis() + " ms");
+            }
+            if (endpoint.erros.get() > 0) {
+                violacoes.add(entrada.getKey() + ": " + endpoint.erros.get() + " erros");
+            }
+        }
+        Assertions.assertThat(violacoes).isEmpty();
+    }
+
+    private List<Long> semear(int usuarios, int lancamentosPorUsuario) {
+        List<Long> ids = new ArrayList<>(usuarios);
+        for (int u = 0; u < usuarios; u++) {
+            Usuario usuario = usuarioRepository.save(Usuario.builder().nome("carga " + u).email("carga-" + u + "-" + System.nanoTime() + "@email.com").senha("senha").build());
+            for (int inicio = 0; inicio < lancamentosPorUsuario; inicio += 1000) { // pelo servico: saldo e resumo materializados ficam coerentes
+                List<Lancamento> lote = new ArrayList<>();
+                for (int i = inicio; i < Math.min(inicio + 1000, lancamentosPorUsuario); i++) {
+                    lote.add(Lancamento.builder().descricao("lancamento " + i).mes(1 + i % 12).ano(2020 + i % 5).valor(BigDecimal.valueOf(1 + i % 500))
+                            .tipo(i % 4 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE)
+                            .dataCadastro(Instant.now()).usuario(Usuario.builder().id(usuario.getId()).build()).build());
+                }
+                lancamentoService.salvarEmLote(lote);
+            }
+            ids.add(usuario.getId());
+        }
+        return ids;
+    }
+
+    private void executar(Map<String, Endpoint> endpoints, List<Long> ids, int taxa, Duration duracao) {
+        // modelo aberto: a requisicao i sai no instante inicio + i/taxa, esteja o servidor respondendo ou nao
+        HttpClient cliente = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(8)).build();
+        List<Endpoint> sorteio = new ArrayList<>();
+        endpoints.values().forEach(endpoint -> { for (int i = 0; i < endpoint.peso; i++) sorteio.add(endpoint); });
+        SplittableRandom aleatorio = new SplittableRandom(42);
+
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / taxa;
+        long total = duracao.toNanos() / intervalo;
+        long inicio = System.nanoTime();
+        List<CompletableFuture<?>> pendentes = new ArrayList<>();
+        for (long i = 0; i < total; i++) {
+            long planejado = inicio + i * intervalo;
+            long espera = planejado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            Endpoint endpoint = sorteio.get(aleatorio.nextInt(sorteio.size()));
+            HttpRequest requisicao = endpoint.requisicao.apply(ids.get(aleatorio.nextInt(ids.size())));
+            pendentes.add(cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resposta, erro) -> endpoint.registrar(planejado, erro == null && resposta.statusCode() < 300)));
+        }
+        CompletableFuture.allOf(pendentes.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+    }
+
+    private URI uri(String caminho) {
+        return URI.create("http://localhost:" + porta + caminho);
+    }
+
+    private static Duration limite(String endpoint, String padrao) {
+        return Duration.parse(System.getProperty("carga.p99." + endpoint, padrao));
+    }
+
+    static class Endpoint {
+
+        final int peso;
+        final Duration limiteP99;
+        final Function<Long, HttpRequest> requisicao;
+        final Histogram latencias = new ConcurrentHistogram(LATENCIA_MAXIMA_MICROS, 3); // micros, 3 digitos significativos
+        final AtomicLong erros = new AtomicLong();
+
+        Endpoint(int peso, Duration limiteP99, Function<Long, HttpRequest> requisicao) {
+            this.peso = peso;
+            this.limiteP99 = limiteP99;
+            this.requisicao = requisicao;
+        }
+
+        void registrar(long planejado, boolean sucesso) {
+            latencias.recordValue(Math.min(LATENCIA_MAXIMA_MICROS, (System.nanoTime() - planejado) / 1000));
+            if (!sucesso) {
+                erros.incrementAndGet();
+            }
+        }
+
+        void zerar() {
+            latencias.reset();
+            erros.set(0);
+        }
+    }
+}
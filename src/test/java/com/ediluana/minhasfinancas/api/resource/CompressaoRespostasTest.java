@@ -0,0 +1,62 @@
+package com.ediluana.minhasfinancas.api.resource;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import com.ediluana.minhasfinancas.service.LancamentoService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// no Tomcat de verdade: o MockMvc nao passa pela compressao do conector
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class CompressaoRespostasTest {
+
+    @LocalServerPort
+    int porta;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Test
+    public void deveComprimirAListaDeLancamentosComETag() throws Exception {
+        //cenario
+        Usuario usuario = usuarioRepository.save(Usuario.builder().nome("compressao").email("compressao-" + System.nanoTime() + "@email.com").senha("senha").build());
+        List<Lancamento> lancamentos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) { // bem acima do server.compression.min-response-size
+            lancamentos.add(Lancamento.builder().descricao("lancamento " + i).mes(1 + i % 12).ano(2024).valor(BigDecimal.TEN)
+                    .tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).dataCadastro(Instant.now())
+                    .usuario(Usuario.builder().id(usuario.getId()).build()).build());
+        }
+        lancamentoService.salvarEmLote(lancamentos);
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/lancamentos?usuario=" + usuario.getId() + "&ano=2024"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip").build();
+
+        //execucao
+        HttpResponse<byte[]> resposta = HttpClient.newHttpClient().send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+
+        //verificacao
+        Assertions.assertThat(resposta.statusCode()).isEqualTo(200);
+        Assertions.assertThat(resposta.headers().firstValue(HttpHeaders.ETAG)).hasValueSatisfying(etag -> Assertions.assertThat(etag).startsWith("W/"));
+        Assertions.assertThat(resposta.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+    }
+}
@@ -0,0 +1,351 @@
+package com.ediluana.minhasfinancas.api.resource;
+
+import com.ediluana.minhasfinancas.api.dto.AtualizaStatusLoteDTO;
+import com.ediluana.minhasfinancas.api.dto.LancamentoDTO;
+import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import com.ediluana.minhasfinancas.service.LancamentoService;
+import com.ediluana.minhasfinancas.service.TokenService;
+import com.ediluana.minhasfinancas.service.UsuarioService;
+import com.ediluana.minhasfinancas.service.limite.LimitadorRequisicoes;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoController.class)
+@AutoConfigureMockMvc
+public class LancamentoControllerTest {
+
+    static final String API = "/api/lancamentos";
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    MockMvc mvc;
+    @MockBean
+    LancamentoService service;
+    @MockBean
+    UsuarioService usuarioService;
+    @MockBean
+    TokenService tokenService; // dependencia do filtro de autenticacao
+    @MockBean
+    LimitadorRequisicoes limitador; // dependencia do filtro de limite
+
+    @Test
+    public void deveExportarLancamentosEmCsv() throws Exception {
+        //cenario
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Mockito.when(usuarioService.existe(1L)).thenReturn(true);
+        simularLancamentos(usuario);
+
+        //execucao
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/export")).param("usuario", "1").param("format", "csv"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+        //verificacao
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado)).andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("id,descricao,mes,ano,valor,tipo,status\n"
+                        + "1,salario,1,2024,1000.00,RECEITA,EFETIVADO\n"
+                        + "2,\"mercado, \"\"feira\"\"\",2,2024,50.5,DESPESA,PENDENTE\n"));
+    }
+
+    @Test
+    public void deveExportarLancamentosEmNdjson() throws Exception {
+        //cenario
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Mockito.when(usuarioService.existe(1L)).thenReturn(true);
+        simularLancamentos(usuario);
+
+        //execucao
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/export")).param("usuario", "1").param("format", "ndjson"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+        //verificacao
+        String corpo = mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado)).andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assertions.assertThat(corpo.split("\n")).hasSize(2);
+        Assertions.assertThat(corpo).startsWith("{\"id\":1,\"descricao\":\"salario\"");
+    }
+
+    @Test
+    public void deveRetornarBadRequestParaFormatoDeExportacaoInvalido() throws Exception {
+        //execucao
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/export")).param("usuario", "1").param("format", "xml"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest()).andReturn();
+
+        //verificacao
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado)).andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().string("Formato inválido. Informe csv ou ndjson."));
+    }
+
+    @Test
+    public void deveSalvarLoteInformandoErrosPorItem() throws Exception {
+        //cenario
+        Usuario usuario = Usuario.builder().id(1L).build();
+        Mockito.when(usuarioService.obterReferencia(1L)).thenReturn(usuario);
+        Mockito.when(usuarioService.obterReferencia(2L)).thenThrow(new RegraNegocioException("Usuário não encontrado para o Id informado"));
+        Mockito.doThrow(new RegraNegocioException("Informe uma Valor válido.")).when(service).validar(Mockito.argThat(l -> l.getValor() == null));
+        Mockito.when(service.salvarEmLote(Mockito.anyList())).thenAnswer(invocacao -> {
+            List<Lancamento> lancamentos = invocacao.getArgument(0);
+            lancamentos.forEach(l -> l.setId(100L));
+            return lancamentos;
+        });
+
+        List<LancamentoDTO> dtos = Arrays.asList(
+                LancamentoDTO.builder().descricao("salario").mes(1).ano(2024).valor(BigDecimal.TEN).usuario(1L).tipo("RECEITA").build(),
+                LancamentoDTO.builder().descricao("sem valor").mes(1).ano(2024).usuario(1L).tipo("DESPESA").build(),
+                LancamentoDTO.builder().descricao("usuario inexistente").mes(1).ano(2024).valor(BigDecimal.TEN).usuario(2L).tipo("DESPESA").build(),
+                LancamentoDTO.builder().descricao("tipo invalido").mes(1).ano(2024).valor(BigDecimal.TEN).usuario(1L).tipo("OUTRO").build());
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.post(API.concat("/lote")).contentType(MediaType.APPLICATION_JSON).content(new ObjectMapper().writeValueAsString(dtos)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("recebidos").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("salvos").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.erros[0].indice").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.erros[1].mensagem").value("Usuário não encontrado para o Id informado"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.erros[2].indice").value(3));
+        Mockito.verify(usuarioService, Mockito.never()).obterPorId(Mockito.anyLong()); // so a referencia, sem carregar o usuario
+    }
+
+    @Test
+    public void deveInformarErroDoItemDoLoteComIdSemDerrubarOsDemais() throws Exception {
+        //cenario
+        Mockito.when(usuarioService.obterReferencia(1L)).thenReturn(Usuario.builder().id(1L).build());
+        Mockito.when(service.salvarEmLote(Mockito.anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        List<LancamentoDTO> dtos = Arrays.asList(
+                LancamentoDTO.builder().descricao("novo").mes(1).ano(2024).valor(BigDecimal.TEN).usuario(1L).tipo("RECEITA").build(),
+                LancamentoDTO.builder().id(7L).descricao("ja existente").mes(1).ano(2024).valor(BigDecimal.TEN).usuario(1L).tipo("RECEITA").build());
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.post(API.concat("/lote")).contentType(MediaType.APPLICATION_JSON).content(new ObjectMapper().writeValueAsString(dtos)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("salvos").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.erros[0].indice").value(1));
+        Mockito.verify(service).salvarEmLote(Mockito.argThat(lancamentos -> lancamentos.size() == 1 && lancamentos.get(0).getId() == null));
+    }
+
+    @Test
+    public void deveAtualizarStatusEmLoteRetornandoQuantidadeAtualizada() throws Exception {
+        //cenario
+        Mockito.when(usuarioService.existe(1L)).thenReturn(true);
+        Mockito.when(service.atualizarStatusEmLote(Mockito.argThat(f -> f.getUsuario().getId().equals(1L) && f.getAno() == 2024 && f.getMes() == 3), Mockito.isNull(), Mockito.eq(StatusLancamento.EFETIVADO))).thenReturn(7);
+        AtualizaStatusLoteDTO dto = AtualizaStatusLoteDTO.builder().usuario(1L).status("EFETIVADO").ano(2024).mes(3).build();
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/atualiza-status")).contentType(MediaType.APPLICATION_JSON).content(new ObjectMapper().writeValueAsString(dto)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("7"));
+    }
+
+    @Test
+    public void deveRetornarBadRequestParaStatusInvalidoNoLote() throws Exception {
+        Mockito.when(usuarioService.existe(1L)).thenReturn(true);
+        AtualizaStatusLoteDTO dto = AtualizaStatusLoteDTO.builder().usuario(1L).status("PAGO").ids(List.of(1L)).build();
+
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/atualiza-status")).contentType(MediaType.APPLICATION_JSON).content(new ObjectMapper().writeValueAsString(dto)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verify(service, Mockito.never()).atualizarStatusEmLote(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveResponderNotModifiedSemConsultarQuandoAVersaoNaoMudou() throws Exception {
+        //cenario
+        Mockito.when(usuarioService.existe(1L)).thenReturn(true);
+        Mockito.when(service.obterVersao(1L)).thenReturn(41L);
+        Mockito.when(service.buscar(Mockito.any(Lancamento.class))).thenReturn(List.of());
+
+        String etag = mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("ano", "2024"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.startsWith("W/\""))) // fraco: o Tomcat segue comprimindo
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Mockito.clearInvocations(service);
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("ano", "2024").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etag));
+        Mockito.verify(service, Mockito.never()).buscar(Mockito.any(Lancamento.class));
+
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("ano", "2023").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk()); // outro filtro, outro ETag
+
+        Mockito.when(service.obterVersao(1L)).thenReturn(42L); // houve escrita
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("ano", "2024").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void deveTerUmETagPorFormatoNegociado() throws Exception {
+        //cenario
+        Mockito.when(usuarioService.existe(1L)).thenReturn(true);
+        Mockito.when(service.obterVersao(1L)).thenReturn(41L);
+        Mockito.when(service.buscar(Mockito.any(Lancamento.class))).thenReturn(List.of());
+
+        String etagJson = mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //execucao
+        String etagSmile = mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").accept(SMILE).header(HttpHeaders.IF_NONE_MATCH, etagJson))
+                .andExpect(MockMvcResultMatchers.status().isOk()) // o json guardado pelo cliente nao serve como smile
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //verificacao
+        Assertions.assertThat(etagSmile).isNotEqualTo(etagJson);
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").accept(SMILE).header(HttpHeaders.IF_NONE_MATCH, etagSmile))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    public void deveFiltrarPeloPeriodoInformado() throws Exception {
+        //cenario
+        Mockito.when(usuarioService.existe(1L)).thenReturn(true);
+        Mockito.when(service.buscar(Mockito.any(Lancamento.class))).thenReturn(List.of());
+        ArgumentCaptor<Lancamento> filtro = ArgumentCaptor.forClass(Lancamento.class);
+
+        //execucao
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("de", "2024-01").param("ate", "2024-06"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //verificacao
+        Mockito.verify(service).buscar(filtro.capture());
+        Assertions.assertThat(filtro.getValue().getCompetenciaDe()).isEqualTo(YearMonth.of(2024, 1));
+        Assertions.assertThat(filtro.getValue().getCompetenciaAte()).isEqualTo(YearMonth.of(2024, 6));
+    }
+
+    @Test
+    public void deveRetornarBadRequestParaPeriodoInvalido() throws Exception {
+        Mockito.when(usuarioService.existe(1L)).thenReturn(true);
+        Mockito.when(service.buscar(Mockito.any(Lancamento.class))).thenThrow(new RegraNegocioException("Informe um período válido."));
+
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("de", "2024-06").param("ate", "2024-01"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void deveNegociarRespostaEmSmile() throws Exception {
+        //cenario
+        Mockito.when(usuarioService.existe(1L)).thenReturn(true);
+        Mockito.when(service.buscar(Mockito.any(Lancamento.class))).thenReturn(List.of(
+                new LancamentoResumido(1L, "salario", 1, 2024, new BigDecimal("1000.00"), TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 1L)));
+
+        //execucao
+        byte[] corpo = mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").accept(SMILE))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        //verificacao
+        JsonNode lancamentos = new ObjectMapper(new SmileFactory()).readTree(corpo);
+        Assertions.assertThat(lancamentos.get(0).get("descricao").asText()).isEqualTo("salario");
+        Assertions.assertThat(lancamentos.get(0).get("tipo").asText()).isEqualTo("RECEITA");
+    }
+
+    @Test
+    public void deveRetornarProibidoAoConsultarLancamentosDeOutroUsuario() throws Exception {
+        //cenario
+        Mockito.when(tokenService.validar("token-do-2")).thenReturn(2L);
+
+        //execucao
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").header(HttpHeaders.AUTHORIZATION, "Bearer token-do-2"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        //verificacao
+        Mockito.verifyNoInteractions(service);
+    }
+
+    @Test
+    public void deveRetornarProibidoAoExportarLancamentosDeOutroUsuario() throws Exception {
+        //cenario
+        Mockito.when(tokenService.validar("token-do-2")).thenReturn(2L);
+
+        //execucao
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/export")).param("usuario", "1").header(HttpHeaders.AUTHORIZATION, "Bearer token-do-2"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        //verificacao
+        Mockito.verifyNoInteractions(service);
+    }
+
+    @Test
+    public void deveRetornarProibidoAoDeletarLancamentoDeOutroUsuario() throws Exception {
+        //cenario
+        Mockito.when(tokenService.validar("token-do-2")).thenReturn(2L);
+        Lancamento lancamento = Lancamento.builder().id(5L).usuario(Usuario.builder().id(1L).build()).build();
+        Mockito.when(service.obterPorId(5L)).thenReturn(Optional.of(lancamento));
+
+        //execucao
+        mvc.perform(MockMvcRequestBuilders.delete(API.concat("/5")).header(HttpHeaders.AUTHORIZATION, "Bearer token-do-2"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        //verificacao
+        Mockito.verify(service, Mockito.never()).deletar(Mockito.any());
+    }
+
+    @Test
+    public void deveRecusarLoteComLancamentoDeOutroUsuario() throws Exception {
+        //cenario
+        Mockito.when(tokenService.validar("token-do-2")).thenReturn(2L);
+        List<LancamentoDTO> dtos = Arrays.asList(
+                LancamentoDTO.builder().descricao("proprio").mes(1).ano(2024).valor(BigDecimal.TEN).usuario(2L).tipo("RECEITA").build(),
+                LancamentoDTO.builder().descricao("alheio").mes(1).ano(2024).valor(BigDecimal.TEN).usuario(1L).tipo("RECEITA").build());
+
+        //execucao
+        mvc.perform(MockMvcRequestBuilders.post(API.concat("/lote")).header(HttpHeaders.AUTHORIZATION, "Bearer token-do-2")
+                        .contentType(MediaType.APPLICATION_JSON).content(new ObjectMapper().writeValueAsString(dtos)))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        //verificacao
+        Mockito.verify(service, Mockito.never()).salvarEmLote(Mockito.any());
+    }
+
+    private void simularLancamentos(Usuario usuario) {
+        Lancamento salario = Lancamento.builder().id(1L).descricao("salario").mes(1).ano(2024).valor(new BigDecimal("1000.00"))
+                .tipo(TipoLancamento.RECEITA).status(StatusLancamento.EFETIVADO).usuario(usuario).build();
+        Lancamento mercado = Lancamento.builder().id(2L).descricao("mercado, \"feira\"").mes(2).ano(2024).valor(new BigDecimal("50.5"))
+                .tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).usuario(usuario).build();
+
+        Mockito.doAnswer(invocacao -> {
+            Consumer<Lancamento> consumidor = invocacao.getArgument(1);
+            consumidor.accept(salario);
+            consumidor.accept(mercado);
+            return null;
+        }).when(service).percorrer(Mockito.eq(1L), Mockito.any());
+    }
+
+}
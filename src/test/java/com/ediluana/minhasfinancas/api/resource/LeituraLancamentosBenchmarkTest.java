@@ -0,0 +1,127 @@
+package com.ediluana.minhasfinancas.api.resource;
+
+import com.ediluana.minhasfinancas.ApoioBenchmark;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.repository.CapturadorSql;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// listagem de lancamentos antes (entidades com usuario eager serializado em cada linha) e depois (projecao LancamentoResumido)
+// mede sql por requisicao, tamanho do json e bytes alocados pela thread; a projecao precisa ganhar nos tres
+// executar com: ./mvnw test -Dtest=LeituraLancamentosBenchmarkTest -Dbenchmark=true [-Dbenchmark.linhas=1000]
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ediluana.minhasfinancas.model.repository.CapturadorSql")
+@ActiveProfiles("test")
+@ApoioBenchmark.Habilitado
+public class LeituraLancamentosBenchmarkTest {
+
+    @Autowired
+    LancamentoRepository repository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    public void compararEntidadesComProjecao() throws Exception {
+        int linhas = Integer.getInteger("benchmark.linhas", 1000);
+        Usuario usuario = ApoioBenchmark.criarUsuario(usuarioRepository, "benchmark");
+        List<Lancamento> lancamentos = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            lancamentos.add(Lancamento.builder().descricao("lancamento " + i).mes(1 + i % 12).ano(2024).valor(BigDecimal.valueOf(1 + i % 500))
+                    .tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).dataCadastro(Instant.now()).usuario(usuario).build());
+        }
+        repository.saveAll(lancamentos);
+
+        ObjectMapper antes = objectMapper.copy().addMixIn(Lancamento.class, UsuarioCompleto.class); // json de antes: usuario inteiro em cada linha
+        Lancamento filtro = Lancamento.builder().usuario(usuario).build();
+
+        Supplier<Object> entidades = () -> {
+            List<Lancamento> resultado = entityManager.createQuery(" select l from Lancamento l where l.usuario.id = :idUsuario", Lancamento.class)
+                    .setParameter("idUsuario", usuario.getId()).getResultList();
+            resultado.forEach(l -> Hibernate.initialize(l.getUsuario())); // o que o fetch eager fazia
+            return resultado;
+        };
+        Supplier<Object> projecao = () -> repository.buscarPorFiltro(filtro);
+
+        medir("antes (entidade + usuario eager)", entidades, antes); // aquecimento
+        medir("depois (projecao)", projecao, objectMapper);
+
+        Medida medidaAntes = medir("antes (entidade + usuario eager)", entidades, antes);
+        Medida medidaDepois = medir("depois (projecao)", projecao, objectMapper);
+        System.out.printf("linhas=%d%n", linhas);
+        System.out.println(medidaAntes);
+        System.out.println(medidaDepois);
+
+        Assertions.assertThat(medidaDepois.sql()).as("sql da projecao").isEqualTo(1);
+        Assertions.assertThat(medidaDepois.sql()).as("sql da projecao contra entidades").isLessThanOrEqualTo(medidaAntes.sql());
+        Assertions.assertThat(medidaDepois.json()).as("bytes do json da projecao contra entidades").isLessThan(medidaAntes.json());
+        Assertions.assertThat(medidaDepois.alocado()).as("bytes alocados da projecao contra entidades").isLessThan(medidaAntes.alocado());
+    }
+
+    private Medida medir(String nome, Supplier<Object> consulta, ObjectMapper mapper) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CapturadorSql.limpar();
+        long alocadoAntes = threads.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+
+        byte[] json = transactionTemplate.execute(status -> {
+            try {
+                return mapper.writeValueAsBytes(consulta.get());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        long tempo = System.nanoTime() - inicio;
+        long alocado = threads.getCurrentThreadAllocatedBytes() - alocadoAntes;
+        return new Medida(nome, CapturadorSql.quantidade(), json.length, alocado, tempo);
+    }
+
+    record Medida(String nome, int sql, int json, long alocado, long tempo) {
+
+        @Override
+        public String toString() {
+            return String.format("%-34s sql=%d json=%d bytes alocado=%d KB tempo=%.1f ms", nome, sql, json, alocado / 1024, tempo / 1e6);
+        }
+    }
+
+    abstract static class UsuarioCompleto { // desfaz a referencia por id declarada em Lancamento
+
+        @JsonIdentityInfo(generator = ObjectIdGenerators.None.class)
+        @JsonIdentityReference(alwaysAsId = false)
+        @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+        Usuario usuario;
+    }
+
+}
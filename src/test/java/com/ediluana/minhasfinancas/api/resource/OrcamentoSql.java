@@ -0,0 +1,35 @@
+package com.ediluana.minhasfinancas.api.resource;
+
+import com.ediluana.minhasfinancas.config.EstatisticasSql;
+import com.ediluana.minhasfinancas.config.EstatisticasSqlFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class OrcamentoSql {
+    // matcher do MockMvc: falha quando o endpoint passa a ir ao banco mais vezes que o orcamento
+    // exige o contexto completo (@SpringBootTest + @AutoConfigureMockMvc); com @WebMvcTest os servicos sao mocks e nao ha sql
+    // uso: mvc.perform(...).andExpect(OrcamentoSql.noMaximo(2)).andExpect(OrcamentoSql.repeticoesNoMaximo(1))
+
+    private OrcamentoSql() {
+    }
+
+    public static ResultMatcher noMaximo(int idasAoBanco) {
+        return resultado -> {
+            EstatisticasSql estatisticas = (EstatisticasSql) resultado.getRequest().getAttribute(EstatisticasSqlFilter.ATRIBUTO_ESTATISTICAS);
+            assertNotNull(estatisticas, "EstatisticasSqlFilter nao passou pela requisicao");
+            assertTrue(estatisticas.getIdasAoBanco() <= idasAoBanco,
+                    () -> "Orcamento de " + idasAoBanco + " idas ao banco estourado: " + estatisticas);
+        };
+    }
+
+    public static ResultMatcher repeticoesNoMaximo(int vezes) { // mesmo sql normalizado repetido na requisicao: desenho de n+1
+        return resultado -> {
+            EstatisticasSql estatisticas = (EstatisticasSql) resultado.getRequest().getAttribute(EstatisticasSqlFilter.ATRIBUTO_ESTATISTICAS);
+            assertNotNull(estatisticas, "EstatisticasSqlFilter nao passou pela requisicao");
+            assertTrue(estatisticas.getRepeticoes() <= vezes,
+                    () -> "Sql repetido " + estatisticas.getRepeticoes() + " vezes (maximo " + vezes + "): " + estatisticas.getMaisRepetido());
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.ediluana.minhasfinancas.api.resource;
+
+import com.ediluana.minhasfinancas.config.EstatisticasSql;
+import com.ediluana.minhasfinancas.config.EstatisticasSqlFilter;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import com.ediluana.minhasfinancas.service.LancamentoService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// custo real de um acerto no LancamentoCache: a chave leva a versao do usuario, lida do banco a cada acesso
+@SpringBootTest(properties = "minhasfinancas.cache.habilitado=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OrcamentoSqlCacheTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Test
+    public void acertoNoCacheDeveIrAoBancoSoPelaVersao() throws Exception {
+        //cenario
+        Usuario usuario = usuarioRepository.save(Usuario.builder().nome("cache").email("cache-" + System.nanoTime() + "@email.com").senha("senha").build());
+        List<Lancamento> lancamentos = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            lancamentos.add(Lancamento.builder().descricao("lancamento " + i).mes(1 + i % 12).ano(2024).valor(BigDecimal.TEN)
+                    .tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).dataCadastro(Instant.now())
+                    .usuario(Usuario.builder().id(usuario.getId()).build()).build());
+        }
+        lancamentoService.salvarEmLote(lancamentos);
+        mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", usuario.getId().toString()).param("ano", "2024"))
+                .andExpect(MockMvcResultMatchers.status().isOk()); // carrega o cache
+
+        //execucao
+        EstatisticasSql acerto = (EstatisticasSql) mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", usuario.getId().toString()).param("ano", "2024"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getRequest().getAttribute(EstatisticasSqlFilter.ATRIBUTO_ESTATISTICAS);
+
+        //verificacao
+        Assertions.assertThat(acerto.getIdasAoBanco()).isEqualTo(2); // versao do ETag + versao da chave do cache; nenhuma consulta de lancamentos
+        Assertions.assertThat(acerto.getConexoes()).isEqualTo(2); // sem transacao em volta: cada leitura da versao pega a sua conexao
+    }
+}
@@ -0,0 +1,100 @@
+package com.ediluana.minhasfinancas.api.resource;
+
+import com.ediluana.minhasfinancas.api.dto.LancamentoDTO;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import com.ediluana.minhasfinancas.service.LancamentoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// orcamento de idas ao banco por endpoint, com banco de verdade: um n+1 ou um select a mais quebra o teste
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OrcamentoSqlEndpointsTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    Usuario usuario;
+
+    @BeforeEach
+    public void semear() {
+        usuario = usuarioRepository.save(Usuario.builder().nome("orcamento").email("orcamento-" + System.nanoTime() + "@email.com").senha("senha").build());
+        List<Lancamento> lancamentos = new ArrayList<>();
+        for (int i = 0; i < 30; i++) { // varias linhas: custo por linha apareceria como 30+ idas
+            lancamentos.add(Lancamento.builder().descricao("lancamento " + i).mes(1 + i % 12).ano(2024).valor(BigDecimal.TEN)
+                    .tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).dataCadastro(Instant.now())
+                    .usuario(Usuario.builder().id(usuario.getId()).build()).build());
+        }
+        lancamentoService.salvarEmLote(lancamentos);
+    }
+
+    @Test
+    public void listarLancamentosNaoDeveIrAoBancoPorLinha() throws Exception {
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", usuario.getId().toString()).param("ano", "2024"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(OrcamentoSql.noMaximo(3)) // existe (se fora do cache) + versao + consulta
+                .andExpect(OrcamentoSql.repeticoesNoMaximo(1)); // nada por linha
+    }
+
+    @Test
+    public void notModifiedDeveLerSoAVersao() throws Exception {
+        //cenario
+        String etag = mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", usuario.getId().toString()).param("ano", "2024"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", usuario.getId().toString()).param("ano", "2024").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(OrcamentoSql.noMaximo(1)); // so a versao (usuario ja conhecido pelo existe): o 304 nao fica de graca
+    }
+
+    @Test
+    public void saldoDeveLerSoOSaldoMaterializado() throws Exception {
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/" + usuario.getId() + "/saldo"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(OrcamentoSql.noMaximo(3)); // usuario + versao + saldo
+    }
+
+    @Test
+    public void salvarLancamentoNaoDeveSelecionarOUsuario() throws Exception {
+        //cenario
+        LancamentoDTO dto = LancamentoDTO.builder().descricao("novo").mes(6).ano(2024).valor(BigDecimal.TEN).tipo("DESPESA").usuario(usuario.getId()).build();
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.post("/api/lancamentos").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(dto)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(OrcamentoSql.noMaximo(9)); // existe, sequence, insert do lancamento, saldo e resumo (select + gravacao cada), versao
+    }
+}
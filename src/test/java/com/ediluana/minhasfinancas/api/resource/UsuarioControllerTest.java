@@ -3,12 +3,22 @@ package com.ediluana.minhasfinancas.api.resource;
 import com.ediluana.minhasfinancas.api.dto.UsuarioDTO;
 import com.ediluana.minhasfinancas.excepition.ErroAutenticacao;
 import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
+import com.ediluana.minhasfinancas.model.entity.ResumoMensal;
 import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.service.Dashboard;
+import com.ediluana.minhasfinancas.service.DashboardService;
 import com.ediluana.minhasfinancas.service.LancamentoService;
+import com.ediluana.minhasfinancas.service.ResumoService;
+import com.ediluana.minhasfinancas.service.SaldoService;
+import com.ediluana.minhasfinancas.service.TokenService;
 import com.ediluana.minhasfinancas.service.UsuarioService;
 import com.ediluana.minhasfinancas.service.impl.UsuarioServiceImpl;
+import com.ediluana.minhasfinancas.service.limite.LimitadorRequisicoes;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -17,6 +27,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -25,6 +36,12 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @WebMvcTest(controllers = UsuarioController.class) // subir contexto rest apenas para testar o controller (isolar teste)
@@ -40,6 +57,16 @@ public class UsuarioControllerTest {
     UsuarioService service;
     @MockBean
     LancamentoService lancamentoService;
+    @MockBean
+    SaldoService saldoService;
+    @MockBean
+    ResumoService resumoService;
+    @MockBean
+    TokenService tokenService;
+    @MockBean
+    LimitadorRequisicoes limitador;
+    @MockBean
+    DashboardService dashboardService;
 
     @Test //teste unitário
     public void deveAutenticarUmUsuario() throws Exception { //front utilizando json
@@ -50,6 +77,7 @@ public class UsuarioControllerTest {
         Usuario usuario = Usuario.builder().id(1L).email(email).senha(senha).build();
 
         Mockito.when(service.autenticar(email, senha)).thenReturn(usuario);
+        Mockito.when(tokenService.gerar(1L)).thenReturn("token-assinado");
 
         String json = new ObjectMapper().writeValueAsString(dto); //pega um objeto e transforma em string json
 
@@ -58,7 +86,8 @@ public class UsuarioControllerTest {
         //criar requisicao, aceitando aplicacao json, mandando e recebendo
 
         mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()) //executa a requisicao
-                .andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId())).andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome())).andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+                .andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId())).andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome())).andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+                .andExpect(MockMvcResultMatchers.jsonPath("token").value("token-assinado")).andExpect(MockMvcResultMatchers.jsonPath("senha").doesNotExist());
     }
 
     @Test
@@ -83,6 +112,19 @@ public class UsuarioControllerTest {
         //                .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
     }
 
+    @Test
+    public void deveRetornar429SemConsultarUsuarioQuandoEmailExcedeTentativas() throws Exception {
+        //cenario
+        Mockito.when(limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_EMAIL, "ediluana@unicamp.br")).thenReturn(20_000_000_000L);
+        String json = new ObjectMapper().writeValueAsString(UsuarioDTO.builder().email(" Ediluana@Unicamp.br").senha("123").build());
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.post(API.concat("/autenticar")).accept(JSON).contentType(JSON).content(json))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "20"));
+        Mockito.verifyNoInteractions(service);
+    }
+
     @Test //teste unitário
     public void deveCriarUmNovoUsuario() throws Exception { //front utilizando json
         //cenario
@@ -122,4 +164,107 @@ public class UsuarioControllerTest {
 
     }
 
+    @Test
+    public void deveObterResumoMensalDoUsuario() throws Exception {
+        //cenario
+        ResumoMensal resumo = ResumoMensal.builder().idUsuario(1L).ano(2024).mes(3).tipo(TipoLancamento.DESPESA)
+                .status(StatusLancamento.EFETIVADO).valor(BigDecimal.valueOf(150)).quantidade(3L).build();
+
+        Mockito.when(service.existe(1L)).thenReturn(true);
+        Mockito.when(resumoService.obterResumo(1L, 2024, 2024)).thenReturn(Arrays.asList(resumo));
+
+        //execucao e verificacao
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/resumo")).param("anoInicial", "2024").param("anoFinal", "2024").accept(JSON);
+
+        mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.startsWith("W/\"")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].mes").value(3)).andExpect(MockMvcResultMatchers.jsonPath("$[0].tipo").value("DESPESA")).andExpect(MockMvcResultMatchers.jsonPath("$[0].quantidade").value(3));
+    }
+
+    @Test
+    public void deveResponderNotModifiedParaResumoSemAlteracao() throws Exception {
+        //cenario
+        Mockito.when(service.existe(1L)).thenReturn(true);
+        Mockito.when(lancamentoService.obterVersao(1L)).thenReturn(7L);
+        Mockito.when(resumoService.obterResumo(1L, 2024, 2024)).thenReturn(Arrays.asList());
+
+        String etag = mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/resumo")).param("anoInicial", "2024").param("anoFinal", "2024"))
+                .andExpect(MockMvcResultMatchers.status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/resumo")).param("anoInicial", "2024").param("anoFinal", "2024").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/resumo")).param("anoInicial", "2023").param("anoFinal", "2024").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk()); // outro intervalo, outro ETag
+        Mockito.verify(resumoService, Mockito.times(1)).obterResumo(1L, 2024, 2024);
+        Mockito.verify(service, Mockito.never()).obterPorId(Mockito.anyLong());
+    }
+
+    @Test
+    public void deveObterODashboardComPartesIndisponiveis() throws Exception {
+        //cenario
+        Dashboard dashboard = new Dashboard(BigDecimal.valueOf(250), null, Map.of(TipoLancamento.DESPESA, BigDecimal.TEN), List.of(Dashboard.LANCAMENTOS_MES));
+        Mockito.when(service.existe(1L)).thenReturn(true);
+        Mockito.when(dashboardService.obter(1L)).thenReturn(dashboard);
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/dashboard")).accept(JSON)).andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("saldo").value(250))
+                .andExpect(MockMvcResultMatchers.jsonPath("pendentes.DESPESA").value(10))
+                .andExpect(MockMvcResultMatchers.jsonPath("indisponiveis[0]").value("lancamentosMes"));
+    }
+
+    @Test
+    public void deveRetornarNotFoundNoDashboardDeUsuarioInexistente() throws Exception {
+        //cenario
+        Mockito.when(service.existe(1L)).thenReturn(false);
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/dashboard")).accept(JSON)).andExpect(MockMvcResultMatchers.status().isNotFound());
+        Mockito.verify(dashboardService, Mockito.never()).obter(Mockito.anyLong());
+    }
+
+    @Test
+    public void deveResponderNotModifiedParaSaldoSemAlteracao() throws Exception {
+        //cenario
+        Mockito.when(service.existe(1L)).thenReturn(true);
+        Mockito.when(lancamentoService.obterVersao(1L)).thenReturn(7L);
+        Mockito.when(lancamentoService.obterSaldoPorUsuario(1L)).thenReturn(BigDecimal.TEN);
+
+        String etag = mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo"))).andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("10")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+        Mockito.verify(lancamentoService, Mockito.times(1)).obterSaldoPorUsuario(1L);
+    }
+
+    @Test
+    public void deveRetornarProibidoParaSaldoDeOutroUsuario() throws Exception {
+        //cenario
+        Mockito.when(tokenService.validar("token-do-2")).thenReturn(2L);
+
+        //execucao
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")).header(HttpHeaders.AUTHORIZATION, "Bearer token-do-2"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        mvc.perform(MockMvcRequestBuilders.post(API.concat("/1/saldo/reconstruir")).header(HttpHeaders.AUTHORIZATION, "Bearer token-do-2"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        //verificacao
+        Mockito.verifyNoInteractions(lancamentoService, saldoService);
+    }
+
+    @Test
+    public void deveRetornarSaldoDoProprioUsuarioDoToken() throws Exception {
+        //cenario
+        Mockito.when(tokenService.validar("token-do-1")).thenReturn(1L);
+        Mockito.when(service.existe(1L)).thenReturn(true);
+        Mockito.when(lancamentoService.obterSaldoPorUsuario(1L)).thenReturn(BigDecimal.TEN);
+
+        //execucao e verificacao
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")).header(HttpHeaders.AUTHORIZATION, "Bearer token-do-1"))
+                .andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.content().string("10"));
+    }
+
 }
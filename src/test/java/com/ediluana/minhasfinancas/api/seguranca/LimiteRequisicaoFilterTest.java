@@ -0,0 +1,51 @@
+package com.ediluana.minhasfinancas.api.seguranca;
+
+import com.ediluana.minhasfinancas.service.limite.LimitadorRequisicoes;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+public class LimiteRequisicaoFilterTest {
+
+    LimitadorRequisicoes limitador = Mockito.mock(LimitadorRequisicoes.class);
+
+    @Test
+    public void deveRetornar429ComRetryAfterQuandoLimiteEsgotado() throws Exception {
+        //cenario
+        Mockito.when(limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_IP, "10.0.0.1")).thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/usuarios/autenticar");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        //execucao
+        new LimiteRequisicaoFilter(limitador).doFilter(request, response, chain);
+
+        //verificacao
+        Assertions.assertThat(response.getStatus()).isEqualTo(429);
+        Assertions.assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        Assertions.assertThat(chain.getRequest()).isNull(); // nao chegou ao controller
+    }
+
+    @Test
+    public void deveLimitarEscritasENaoLeiturasDeLancamentos() throws Exception {
+        //cenario
+        MockHttpServletRequest escrita = new MockHttpServletRequest("POST", "/api/lancamentos/lote");
+        escrita.setRemoteAddr("10.0.0.1");
+        MockFilterChain leitura = new MockFilterChain();
+
+        //execucao
+        new LimiteRequisicaoFilter(limitador).doFilter(escrita, new MockHttpServletResponse(), new MockFilterChain());
+        new LimiteRequisicaoFilter(limitador).doFilter(new MockHttpServletRequest("GET", "/api/lancamentos"), new MockHttpServletResponse(), leitura);
+
+        //verificacao
+        Mockito.verify(limitador).consumir(LimitadorRequisicoes.Limite.ESCRITA_IP, "10.0.0.1");
+        Mockito.verifyNoMoreInteractions(limitador);
+        Assertions.assertThat(leitura.getRequest()).isNotNull();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ediluana.minhasfinancas.api.seguranca;
+
+import com.ediluana.minhasfinancas.service.TokenService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class TokenAutenticacaoFilterTest {
+
+    TokenService tokenService = Mockito.mock(TokenService.class);
+
+    @Test
+    public void deveAssociarUsuarioDoTokenARequisicao() throws Exception {
+        //cenario
+        Mockito.when(tokenService.validar("valido")).thenReturn(7L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+        request.addHeader("Authorization", "Bearer valido");
+        MockFilterChain chain = new MockFilterChain();
+
+        //execucao
+        new TokenAutenticacaoFilter(tokenService, true).doFilter(request, new MockHttpServletResponse(), chain);
+
+        //verificacao
+        Assertions.assertThat(request.getAttribute(TokenAutenticacaoFilter.ATRIBUTO_USUARIO)).isEqualTo(7L);
+        Assertions.assertThat(chain.getRequest()).isNotNull(); // seguiu para o controller
+    }
+
+    @Test
+    public void deveRetornarNaoAutorizadoParaTokenInvalido() throws Exception {
+        //cenario
+        Mockito.when(tokenService.validar("invalido")).thenReturn(null);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+        request.addHeader("Authorization", "Bearer invalido");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        //execucao
+        new TokenAutenticacaoFilter(tokenService, false).doFilter(request, response, chain);
+
+        //verificacao
+        Assertions.assertThat(response.getStatus()).isEqualTo(401);
+        Assertions.assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    public void deveRetornarNaoAutorizadoParaTokenDeUsuarioNaoPositivo() throws Exception {
+        //cenario
+        Mockito.when(tokenService.validar("zerado")).thenReturn(0L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+        request.addHeader("Authorization", "Bearer zerado");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        //execucao
+        new TokenAutenticacaoFilter(tokenService, false).doFilter(request, response, chain);
+
+        //verificacao
+        Assertions.assertThat(response.getStatus()).isEqualTo(401);
+        Assertions.assertThat(request.getAttribute(TokenAutenticacaoFilter.ATRIBUTO_USUARIO)).isNull();
+    }
+
+    @Test
+    public void deveExigirTokenApenasForaDoLoginECadastroQuandoObrigatorio() throws Exception {
+        //cenario
+        TokenAutenticacaoFilter filtro = new TokenAutenticacaoFilter(tokenService, true);
+        MockHttpServletResponse semToken = new MockHttpServletResponse();
+        MockFilterChain login = new MockFilterChain();
+
+        //execucao
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/lancamentos"), semToken, new MockFilterChain());
+        filtro.doFilter(new MockHttpServletRequest("POST", "/api/usuarios/autenticar"), new MockHttpServletResponse(), login);
+
+        //verificacao
+        Assertions.assertThat(semToken.getStatus()).isEqualTo(401);
+        Assertions.assertThat(login.getRequest()).isNotNull();
+        Mockito.verifyNoInteractions(tokenService);
+    }
+}
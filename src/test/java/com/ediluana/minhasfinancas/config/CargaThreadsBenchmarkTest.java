@@ -0,0 +1,127 @@
+package com.ediluana.minhasfinancas.config;
+
+import com.ediluana.minhasfinancas.ApoioBenchmark;
+import com.ediluana.minhasfinancas.MinhasfinancasApplication;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// carga concorrente de leituras contra o servidor embutido: throughput e p99 com threads de plataforma e com virtual threads
+// os dois modos sobem a aplicacao em sequencia, no mesmo teste, e sao comparados
+// o modo virtual requer java 21+: o projeto compila para 17, e o surefire roda os testes na jvm indicada em -Djvm
+//   ./mvnw test -Dtest=CargaThreadsBenchmarkTest -Dbenchmark=true -Djvm=<jdk 21>/bin/java
+// opcionais: -Dbenchmark.clientes=400 -Dbenchmark.requisicoes=20000
+//            -Dbenchmark.throughput-minimo=0.9 (virtual / plataforma) -Dbenchmark.p99-maximo=1.1 (virtual / plataforma)
+@ApoioBenchmark.Habilitado
+public class CargaThreadsBenchmarkTest {
+
+    record Medida(String modo, int erros, double throughput, long p50, long p99, long max) {
+    }
+
+    @Test
+    public void virtualThreadsNaoDevemPerderThroughputNemP99() throws Exception {
+        int clientes = Integer.getInteger("benchmark.clientes", 400);
+        int requisicoes = Integer.getInteger("benchmark.requisicoes", 20000);
+        double throughputMinimo = Double.parseDouble(System.getProperty("benchmark.throughput-minimo", "0.9")); // folga de ruido da maquina
+        double p99Maximo = Double.parseDouble(System.getProperty("benchmark.p99-maximo", "1.1"));
+
+        Assertions.assertThat(Runtime.version().feature()).as("java da jvm dos testes (virtual threads requerem 21+, use -Djvm=<jdk 21>/bin/java)")
+                .isGreaterThanOrEqualTo(21); // falha antes de medir: pular em silencio deixava a comparacao sem rodar
+
+        Medida plataforma = medir(false, clientes, requisicoes);
+        Medida virtuais = medir(true, clientes, requisicoes);
+
+        System.out.printf("virtual/plataforma: throughput=%.2fx p99=%.2fx%n", virtuais.throughput() / plataforma.throughput(), (double) virtuais.p99() / plataforma.p99());
+        Assertions.assertThat(plataforma.erros()).as("erros com threads de plataforma").isZero();
+        Assertions.assertThat(virtuais.erros()).as("erros com virtual threads").isZero();
+        Assertions.assertThat(virtuais.throughput()).as("throughput com virtual threads (req/s)").isGreaterThanOrEqualTo(plataforma.throughput() * throughputMinimo);
+        Assertions.assertThat(virtuais.p99()).as("p99 com virtual threads (ns)").isLessThanOrEqualTo((long) (plataforma.p99() * p99Maximo));
+    }
+
+    private Medida medir(boolean virtual, int clientes, int requisicoes) throws Exception {
+        // mesmas propriedades do perfil "virtual": virtual threads no tomcat e o semaforo de conexoes no banco
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(MinhasfinancasApplication.class).profiles("test")
+                .properties("server.port=0", "minhasfinancas.limite.habilitado=false", "minhasfinancas.cache.habilitado=false",
+                        "spring.threads.virtual.enabled=" + virtual, "minhasfinancas.banco.limite-conexoes.habilitado=" + virtual)
+                .run()) {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            Usuario usuario = ApoioBenchmark.criarUsuario(contexto.getBean(UsuarioRepository.class), "carga");
+            List<Lancamento> lancamentos = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                lancamentos.add(Lancamento.builder().descricao("lancamento " + i).mes(1 + i % 12).ano(2024).valor(BigDecimal.TEN)
+                        .tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).dataCadastro(Instant.now()).usuario(usuario).build());
+            }
+            contexto.getBean(LancamentoRepository.class).saveAll(lancamentos);
+
+            HttpClient cliente = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(8)).build();
+            HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/lancamentos?usuario=" + usuario.getId() + "&ano=2024")).GET().build();
+
+            executar(cliente, requisicao, clientes, requisicoes / 10); // aquecimento
+            long[] latencias = new long[requisicoes];
+            long inicio = System.nanoTime();
+            int erros = executar(cliente, requisicao, clientes, requisicoes, latencias);
+            long tempo = System.nanoTime() - inicio;
+
+            Arrays.sort(latencias);
+            Medida medida = new Medida(virtual ? "virtuais" : "plataforma", erros, requisicoes / (tempo / 1e9),
+                    latencias[requisicoes / 2], latencias[(int) (requisicoes * 0.99)], latencias[requisicoes - 1]);
+            System.out.printf("threads=%s clientes=%d requisicoes=%d erros=%d throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                    medida.modo(), clientes, requisicoes, erros, medida.throughput(), medida.p50() / 1e6, medida.p99() / 1e6, medida.max() / 1e6);
+            return medida;
+        }
+    }
+
+    private int executar(HttpClient cliente, HttpRequest requisicao, int clientes, int total) throws Exception {
+        return executar(cliente, requisicao, clientes, total, new long[total]);
+    }
+
+    private int executar(HttpClient cliente, HttpRequest requisicao, int clientes, int total, long[] latencias) throws Exception {
+        // "clientes" requisicoes em voo o tempo todo: cada resposta dispara a proxima
+        AtomicInteger proxima = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+        List<CompletableFuture<Void>> cadeias = new ArrayList<>(clientes);
+        for (int c = 0; c < clientes; c++) {
+            cadeias.add(enviar(cliente, requisicao, proxima, total, latencias, erros));
+        }
+        CompletableFuture.allOf(cadeias.toArray(CompletableFuture[]::new)).get();
+        return erros.get();
+    }
+
+    private CompletableFuture<Void> enviar(HttpClient cliente, HttpRequest requisicao, AtomicInteger proxima, int total, long[] latencias, AtomicInteger erros) {
+        int indice = proxima.getAndIncrement();
+        if (indice >= total) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long inicio = System.nanoTime();
+        return cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                .handle((resposta, erro) -> {
+                    latencias[indice] = System.nanoTime() - inicio;
+                    if (erro != null || resposta.statusCode() != 200) {
+                        erros.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(nada -> enviar(cliente, requisicao, proxima, total, latencias, erros));
+    }
+}
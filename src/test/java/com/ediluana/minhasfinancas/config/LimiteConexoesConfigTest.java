@@ -0,0 +1,48 @@
+package com.ediluana.minhasfinancas.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+
+public class LimiteConexoesConfigTest {
+
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+    BeanPostProcessor processador = LimiteConexoesConfig.limiteConexoesDataSource(new MockEnvironment(), beanFactory);
+
+    @Test
+    public void deveLimitarApenasODataSourcePrincipal() {
+        //cenario
+        DataSource principal = Mockito.mock(DataSource.class);
+        DataSource relatorios = Mockito.mock(DataSource.class);
+        beanFactory.registerBeanDefinition("relatoriosDataSource", new RootBeanDefinition(DataSource.class));
+
+        //execucao
+        Object principalProcessado = processador.postProcessAfterInitialization(principal, "dataSource");
+        Object relatoriosProcessado = processador.postProcessAfterInitialization(relatorios, "relatoriosDataSource");
+
+        //verificacao
+        Assertions.assertThat(principalProcessado).isInstanceOf(LimiteConexoesDataSource.class);
+        Assertions.assertThat(relatoriosProcessado).isSameAs(relatorios);
+    }
+
+    @Test
+    public void deveLimitarODataSourceMarcadoComoPrimary() {
+        //cenario
+        RootBeanDefinition definicao = new RootBeanDefinition(DataSource.class);
+        definicao.setPrimary(true);
+        beanFactory.registerBeanDefinition("financasDataSource", definicao);
+
+        //execucao
+        Object processado = processador.postProcessAfterInitialization(Mockito.mock(DataSource.class), "financasDataSource");
+
+        //verificacao
+        Assertions.assertThat(processado).isInstanceOf(LimiteConexoesDataSource.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ediluana.minhasfinancas.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+public class LimiteConexoesDataSourceTest {
+
+    DataSource alvo = Mockito.mock(DataSource.class);
+
+    LimiteConexoesDataSource dataSource = new LimiteConexoesDataSource(alvo, 2, Duration.ofMillis(50));
+
+    @Test
+    public void deveBloquearAlemDoLimiteELiberarNoClose() throws Exception {
+        //cenario
+        Connection fisica = Mockito.mock(Connection.class);
+        Mockito.when(alvo.getConnection()).thenReturn(fisica);
+
+        //execucao
+        Connection primeira = dataSource.getConnection();
+        Connection segunda = dataSource.getConnection();
+
+        //verificacao
+        Assertions.assertThat(dataSource.disponiveis()).isZero();
+        Assertions.assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        primeira.close();
+        primeira.close(); // close repetido nao devolve permissao a mais
+        Assertions.assertThat(dataSource.disponiveis()).isEqualTo(1);
+        Mockito.verify(fisica, Mockito.times(1)).close();
+
+        segunda.close();
+        Assertions.assertThat(dataSource.disponiveis()).isEqualTo(2);
+    }
+
+    @Test
+    public void deveDevolverAPermissaoQuandoOPoolFalhar() throws Exception {
+        //cenario
+        Mockito.when(alvo.getConnection()).thenThrow(new SQLException("pool esgotado"));
+
+        //execucao e verificacao
+        Assertions.assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class).hasMessage("pool esgotado");
+        Assertions.assertThat(dataSource.disponiveis()).isEqualTo(2);
+    }
+
+    @Test
+    public void deveRepassarChamadasParaAConexaoReal() throws Exception {
+        //cenario
+        Connection fisica = Mockito.mock(Connection.class);
+        Mockito.when(alvo.getConnection()).thenReturn(fisica);
+        Mockito.when(fisica.getAutoCommit()).thenReturn(false);
+        Mockito.when(fisica.prepareStatement("select 1")).thenThrow(new SQLException("erro do driver"));
+
+        //execucao
+        Connection conexao = dataSource.getConnection();
+
+        //verificacao
+        Assertions.assertThat(conexao.getAutoCommit()).isFalse();
+        Assertions.assertThatThrownBy(() -> conexao.prepareStatement("select 1")).isInstanceOf(SQLException.class).hasMessage("erro do driver");
+    }
+}
@@ -0,0 +1,33 @@
+package com.ediluana.minhasfinancas.config;
+
+import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
+import com.ediluana.minhasfinancas.service.impl.ServicoDeTeste;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+public class MetricasAspectTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void deveMedirTempoLinhasEErrosDoServico() {
+        //cenario
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(new ServicoDeTeste());
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(new MetricasAspect(registry));
+        ServicoDeTeste servico = fabrica.getProxy();
+
+        //execucao
+        servico.buscar();
+        servico.buscar();
+        Assertions.assertThatThrownBy(servico::falhar).isInstanceOf(RegraNegocioException.class);
+
+        //verificacao
+        Assertions.assertThat(registry.get(MetricasAspect.TEMPO).tags("camada", "servico", "metodo", "buscar", "excecao", "none").timer().count()).isEqualTo(2);
+        Assertions.assertThat(registry.get(MetricasAspect.LINHAS).tags("metodo", "buscar").summary().totalAmount()).isEqualTo(6);
+        Assertions.assertThat(registry.get(MetricasAspect.TEMPO).tags("metodo", "falhar", "excecao", "RegraNegocioException").timer().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get(MetricasAspect.ERROS).tags("excecao", "RegraNegocioException", "negocio", "true").counter().count()).isEqualTo(1);
+    }
+}
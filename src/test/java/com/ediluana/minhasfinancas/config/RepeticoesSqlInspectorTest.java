@@ -0,0 +1,50 @@
+package com.ediluana.minhasfinancas.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class RepeticoesSqlInspectorTest {
+
+    RepeticoesSqlInspector inspector = new RepeticoesSqlInspector();
+
+    @AfterEach
+    public void encerrar() {
+        EstatisticasSql.encerrar();
+    }
+
+    @Test
+    public void deveContarOMesmoFormatoComValoresDiferentes() {
+        //cenario
+        EstatisticasSql estatisticas = EstatisticasSql.iniciar(Long.MAX_VALUE);
+
+        //execucao
+        inspector.inspect("select u1_0.id, u1_0.nome from financas.usuario u1_0 where u1_0.id=1");
+        inspector.inspect("select u1_0.id, u1_0.nome\n  from financas.usuario u1_0 where u1_0.id=2");
+        inspector.inspect("select u1_0.id, u1_0.nome from financas.usuario u1_0 where u1_0.id=?");
+        inspector.inspect("select l1_0.id from financas.lancamento l1_0 where l1_0.id_usuario=?");
+
+        //verificacao
+        Assertions.assertThat(estatisticas.getRepeticoes()).isEqualTo(3);
+        Assertions.assertThat(estatisticas.getMaisRepetido()).isEqualTo("select u1_0.id, u1_0.nome from financas.usuario u1_0 where u1_0.id=?");
+    }
+
+    @Test
+    public void deveNormalizarTextosEListasDoIn() {
+        //execucao
+        String formato = RepeticoesSqlInspector.formato("update financas.lancamento set status='EFETIVADO' where id in (?, ?, ?)");
+
+        //verificacao
+        Assertions.assertThat(formato).isEqualTo("update financas.lancamento set status=? where id in (?)");
+    }
+
+    @Test
+    public void naoDeveContarForaDeUmaRequisicao() {
+        //execucao
+        String sql = inspector.inspect("select 1");
+
+        //verificacao
+        Assertions.assertThat(sql).isEqualTo("select 1");
+        Assertions.assertThat(EstatisticasSql.atual()).isNull();
+    }
+}
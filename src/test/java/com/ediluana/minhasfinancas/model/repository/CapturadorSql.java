@@ -0,0 +1,34 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class CapturadorSql implements StatementInspector {
+    // guarda o sql gerado pelo hibernate para os testes conferirem os predicados executados
+
+    private static final List<String> SQLS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        SQLS.add(sql);
+        return sql;
+    }
+
+    public static void limpar() {
+        SQLS.clear();
+    }
+
+    public static List<String> todas() {
+        return List.copyOf(SQLS);
+    }
+
+    public static int quantidade() {
+        return SQLS.size();
+    }
+
+    public static String ultima() {
+        return SQLS.isEmpty() ? "" : SQLS.get(SQLS.size() - 1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+public class IndiceDataCadastroTest {
+
+    @Test
+    public void deveRemoverOIndiceNoPostgres() throws Exception {
+        //cenario
+        Statement sql = Mockito.mock(Statement.class);
+        DataSource dataSource = dataSource("PostgreSQL", sql, "r");
+
+        //execucao
+        new IndiceDataCadastro(dataSource).remover();
+
+        //verificacao
+        Mockito.verify(sql).execute("drop index concurrently if exists financas.idx_lancamento_usuario_data_cadastro");
+    }
+
+    @Test
+    public void naoDeveRodarDdlConcorrenteNaTabelaParticionada() throws Exception {
+        //cenario
+        Statement sql = Mockito.mock(Statement.class);
+        DataSource dataSource = dataSource("PostgreSQL", sql, "p");
+
+        //execucao
+        new IndiceDataCadastro(dataSource).remover();
+
+        //verificacao
+        Mockito.verify(sql, Mockito.never()).execute(Mockito.anyString()); // a migracao de particionamento ja levou o indice
+    }
+
+    @Test
+    public void naoDeveFazerNadaEmOutroBanco() throws Exception {
+        //cenario
+        Statement sql = Mockito.mock(Statement.class);
+        DataSource dataSource = dataSource("H2", sql, null);
+
+        //execucao
+        new IndiceDataCadastro(dataSource).remover();
+
+        //verificacao
+        Mockito.verifyNoInteractions(sql);
+    }
+
+    private DataSource dataSource(String banco, Statement sql, String tipoTabela) throws Exception {
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Connection conexao = Mockito.mock(Connection.class);
+        DatabaseMetaData metadados = Mockito.mock(DatabaseMetaData.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(conexao);
+        Mockito.when(conexao.getMetaData()).thenReturn(metadados);
+        Mockito.when(conexao.createStatement()).thenReturn(sql);
+        Mockito.when(metadados.getDatabaseProductName()).thenReturn(banco);
+        ResultSet tipo = Mockito.mock(ResultSet.class);
+        Mockito.when(sql.executeQuery(Mockito.contains("relkind"))).thenReturn(tipo);
+        Mockito.when(tipo.next()).thenReturn(tipoTabela != null);
+        Mockito.when(tipo.getString(1)).thenReturn(tipoTabela);
+        return dataSource;
+    }
+}
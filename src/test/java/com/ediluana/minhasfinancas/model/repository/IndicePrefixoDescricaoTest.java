@@ -0,0 +1,73 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+public class IndicePrefixoDescricaoTest {
+
+    @Test
+    public void deveCriarOIndiceComPatternOpsNoPostgres() throws Exception {
+        //cenario
+        Statement sql = Mockito.mock(Statement.class);
+        DataSource dataSource = dataSource("PostgreSQL", sql, "r");
+
+        //execucao
+        new IndicePrefixoDescricao(dataSource).criar();
+
+        //verificacao
+        InOrder ordem = Mockito.inOrder(sql); // o btree comum so sai depois que o pattern_ops existe
+        ordem.verify(sql).execute(Mockito.contains("descricao_normalizada varchar_pattern_ops"));
+        ordem.verify(sql).execute("drop index concurrently if exists financas.idx_lancamento_usuario_descricao");
+        Mockito.verify(sql, Mockito.never()).execute(IndicePrefixoDescricao.CRIAR_COMUM);
+    }
+
+    @Test
+    public void naoDeveRodarDdlConcorrenteNaTabelaParticionada() throws Exception {
+        //cenario
+        Statement sql = Mockito.mock(Statement.class);
+        DataSource dataSource = dataSource("PostgreSQL", sql, "p");
+
+        //execucao
+        new IndicePrefixoDescricao(dataSource).criar();
+
+        //verificacao
+        Mockito.verify(sql, Mockito.never()).execute(Mockito.anyString()); // o indice vem da migracao de particionamento
+    }
+
+    @Test
+    public void deveCriarSoOIndiceComumEmOutroBanco() throws Exception {
+        //cenario
+        Statement sql = Mockito.mock(Statement.class);
+        DataSource dataSource = dataSource("H2", sql, null);
+
+        //execucao
+        new IndicePrefixoDescricao(dataSource).criar();
+
+        //verificacao
+        Mockito.verify(sql).execute("create index if not exists idx_lancamento_usuario_descricao on financas.lancamento (id_usuario, descricao_normalizada)");
+        Mockito.verify(sql).close();
+        Mockito.verifyNoMoreInteractions(sql); // sem pattern_ops nem concurrently, que o H2 nao tem
+    }
+
+    private DataSource dataSource(String banco, Statement sql, String tipoTabela) throws Exception {
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Connection conexao = Mockito.mock(Connection.class);
+        DatabaseMetaData metadados = Mockito.mock(DatabaseMetaData.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(conexao);
+        Mockito.when(conexao.getMetaData()).thenReturn(metadados);
+        Mockito.when(conexao.createStatement()).thenReturn(sql);
+        Mockito.when(metadados.getDatabaseProductName()).thenReturn(banco);
+        ResultSet tipo = Mockito.mock(ResultSet.class);
+        Mockito.when(sql.executeQuery(Mockito.contains("relkind"))).thenReturn(tipo);
+        Mockito.when(tipo.next()).thenReturn(tipoTabela != null);
+        Mockito.when(tipo.getString(1)).thenReturn(tipoTabela);
+        return dataSource;
+    }
+}
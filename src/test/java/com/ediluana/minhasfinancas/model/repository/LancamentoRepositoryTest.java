@@ -1,8 +1,11 @@
 package com.ediluana.minhasfinancas.model.repository;
 
 import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
 import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
 import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import com.ediluana.minhasfinancas.model.projection.TotalMensal;
 import static org.assertj.core.api.Assertions.*; // sem statico, precisa do Assertions.assert ..
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,17 +13,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Calendar;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Optional;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
-@DataJpaTest // deleta a base de dados de teste
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ediluana.minhasfinancas.model.repository.CapturadorSql") // deleta a base de dados de teste
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE) // não sobrescreve configuracoes,
 public class LancamentoRepositoryTest {
 
@@ -77,9 +83,148 @@ public class LancamentoRepositoryTest {
 
     }
 
+    @Test
+    public void devePaginarLancamentosPorCursor() {
+        //cenario
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        for (int mes = 1; mes <= 5; mes++) {
+            Lancamento lancamento = criarLancamento();
+            lancamento.setMes(mes);
+            lancamento.setUsuario(usuario);
+            entityManager.persist(lancamento);
+        }
+        Lancamento filtro = Lancamento.builder().usuario(usuario).ano(2019).build();
+
+        //execucao
+        Slice<LancamentoResumido> primeira = repository.buscarPaginaPorFiltro(filtro, null, null, null, 2);
+        LancamentoResumido ultimo = primeira.getContent().get(1);
+        Slice<LancamentoResumido> segunda = repository.buscarPaginaPorFiltro(filtro, ultimo.ano(), ultimo.mes(), ultimo.id(), 2);
+        LancamentoResumido ultimoDaSegunda = segunda.getContent().get(1);
+        Slice<LancamentoResumido> terceira = repository.buscarPaginaPorFiltro(filtro, ultimoDaSegunda.ano(), ultimoDaSegunda.mes(), ultimoDaSegunda.id(), 2);
+
+        //verificacao
+        assertThat(primeira.hasNext()).isTrue();
+        assertThat(primeira.getContent()).extracting(LancamentoResumido::mes).containsExactly(1, 2);
+        assertThat(segunda.getContent()).extracting(LancamentoResumido::mes).containsExactly(3, 4);
+        assertThat(terceira.getContent()).extracting(LancamentoResumido::mes).containsExactly(5);
+        assertThat(terceira.hasNext()).isFalse();
+    }
+
+    @Test
+    public void deveBuscarPeloPrefixoDaDescricaoSemAcentoEComPredicadosIndexados() {
+        //cenario
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento mercado = criarLancamento();
+        mercado.setDescricao("Mercado São João");
+        mercado.setUsuario(usuario);
+        entityManager.persist(mercado);
+        Lancamento aluguel = criarLancamento();
+        aluguel.setDescricao("Aluguel");
+        aluguel.setUsuario(usuario);
+        entityManager.persist(aluguel);
+        entityManager.flush();
+        CapturadorSql.limpar();
+
+        //execucao
+        List<LancamentoResumido> resultado = repository.buscarPorFiltro(Lancamento.builder().usuario(usuario).ano(2019).mes(1).tipo(TipoLancamento.RECEITA).descricao("MERCADO SAO").build());
+
+        //verificacao
+        assertThat(resultado).extracting(LancamentoResumido::id, LancamentoResumido::usuario).containsExactly(tuple(mercado.getId(), usuario.getId()));
+        String sql = CapturadorSql.ultima().toLowerCase().replaceAll("\\s+", " ");
+        assertThat(sql).contains("id_usuario=?", "ano=?", "mes=?", "tipo=?", "descricao_normalizada like ? escape '!'");
+        assertThat(sql).doesNotContain("lower(", "upper(", "join"); // projecao le o id do usuario da propria FK
+    }
+
+    @Test
+    public void deveFiltrarPeloPeriodoDaCompetenciaPreenchidaAoGravar() {
+        //cenario
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Lancamento janeiro = criarLancamento();
+        janeiro.setUsuario(usuario);
+        janeiro.setDataCadastro(null);
+        entityManager.persist(janeiro);
+        Lancamento fevereiro = criarLancamento();
+        fevereiro.setMes(2);
+        fevereiro.setUsuario(usuario);
+        entityManager.persist(fevereiro);
+        Lancamento marco = criarLancamento();
+        marco.setMes(3);
+        marco.setUsuario(usuario);
+        entityManager.persist(marco);
+        entityManager.flush();
+        CapturadorSql.limpar();
+
+        //execucao
+        List<LancamentoResumido> resultado = repository.buscarPorFiltro(Lancamento.builder().usuario(usuario)
+                .competenciaDe(YearMonth.of(2019, 2)).competenciaAte(YearMonth.of(2019, 3)).build());
+
+        //verificacao
+        assertThat(janeiro.getCompetencia()).isEqualTo(LocalDate.of(2019, 1, 1));
+        assertThat(janeiro.getDataCadastro()).isNotNull();
+        assertThat(resultado).extracting(LancamentoResumido::id).containsExactlyInAnyOrder(fevereiro.getId(), marco.getId()); // meses inteiros, inclusivos
+        String sql = CapturadorSql.ultima().toLowerCase().replaceAll("\\s+", " ");
+        assertThat(sql).contains("id_usuario=?", "competencia>=?", "competencia<=?", "ano between ? and ?"); // ano: poda das particoes no postgres
+    }
+
+    @Test
+    public void deveAtualizarOStatusEmLoteApenasDosLancamentosDoUsuario() {
+        //cenario
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+        Usuario outroUsuario = entityManager.persist(Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build());
+        Lancamento janeiro = criarLancamento();
+        janeiro.setUsuario(usuario);
+        entityManager.persist(janeiro);
+        Lancamento fevereiro = criarLancamento();
+        fevereiro.setMes(2);
+        fevereiro.setUsuario(usuario);
+        entityManager.persist(fevereiro);
+        Lancamento jaEfetivado = criarLancamento();
+        jaEfetivado.setStatus(StatusLancamento.EFETIVADO);
+        jaEfetivado.setUsuario(usuario);
+        entityManager.persist(jaEfetivado);
+        Lancamento deOutroUsuario = criarLancamento();
+        deOutroUsuario.setUsuario(outroUsuario);
+        entityManager.persist(deOutroUsuario);
+        Lancamento filtro = Lancamento.builder().usuario(usuario).build();
+        List<Long> ids = List.of(janeiro.getId(), fevereiro.getId(), jaEfetivado.getId(), deOutroUsuario.getId());
+
+        //execucao
+        CapturadorSql.limpar();
+        int travados = repository.travarParaTransicao(filtro, ids, StatusLancamento.EFETIVADO);
+        String sqlTrava = CapturadorSql.ultima().toLowerCase();
+        List<TotalMensal> totais = repository.obterTotaisParaTransicao(filtro, ids, StatusLancamento.EFETIVADO);
+        int atualizados = repository.atualizarStatusPorFiltro(filtro, ids, StatusLancamento.EFETIVADO);
+
+        //verificacao
+        assertThat(atualizados).isEqualTo(2);
+        assertThat(travados).isEqualTo(2); // so as linhas que o update altera
+        assertThat(sqlTrava).contains("for update");
+        assertThat(totais).extracting(TotalMensal::getMes, TotalMensal::getStatus, TotalMensal::getQuantidade)
+                .containsExactlyInAnyOrder(tuple(1, StatusLancamento.PENDENTE, 1L), tuple(2, StatusLancamento.PENDENTE, 1L));
+        assertThat(entityManager.find(Lancamento.class, janeiro.getId()).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+        assertThat(entityManager.find(Lancamento.class, fevereiro.getId()).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+        assertThat(entityManager.find(Lancamento.class, deOutroUsuario.getId()).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+    }
+
+    @Test
+    public void deveInserirLancamentoComReferenciaDoUsuarioSemConsultarOUsuario() {
+        //cenario
+        Usuario usuario = entityManager.persistFlushFind(UsuarioRepositoryTest.criarUsuario());
+        entityManager.clear();
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(entityManager.getEntityManager().getReference(Usuario.class, usuario.getId())); // proxy, como o UsuarioService.obterReferencia
+        CapturadorSql.limpar();
+
+        //execucao
+        repository.saveAndFlush(lancamento);
+
+        //verificacao
+        assertThat(CapturadorSql.todas()).filteredOn(sql -> sql.toLowerCase().startsWith("insert")).hasSize(1);
+        assertThat(CapturadorSql.todas()).noneMatch(sql -> sql.toLowerCase().startsWith("select") && sql.toLowerCase().contains("usuario")); // so o nextval da sequence
+    }
 
     public static Lancamento criarLancamento() {
-        return Lancamento.builder().ano(2019).mes(1).descricao("lançamento qualquer").valor(BigDecimal.valueOf(10)).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).dataCadastro(Calendar.getInstance()).build();
+        return Lancamento.builder().ano(2019).mes(1).descricao("lançamento qualquer").valor(BigDecimal.valueOf(10)).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).dataCadastro(Instant.now()).build();
     }
 
     private Lancamento criarEPersistirLancamento() {
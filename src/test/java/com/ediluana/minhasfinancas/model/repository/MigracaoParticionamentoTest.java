@@ -0,0 +1,116 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.ApoioBenchmark;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+// roda db/particionar-lancamento.sql num schema descartavel no lugar de financas e confere particoes, linhas e indices
+// precisa de um PostgreSQL descartavel: o schema migracao_particao eh apagado e recriado
+// executar com: ./mvnw test -Dtest=MigracaoParticionamentoTest -Dparticionamento.url=jdbc:postgresql://localhost:5432/scratch
+//               [-Dparticionamento.usuario=postgres -Dparticionamento.senha=postgres]
+@ApoioBenchmark.ComPostgres
+public class MigracaoParticionamentoTest {
+
+    private static final String SCHEMA = "migracao_particao";
+
+    private static final String MIGRACAO = "/db/particionar-lancamento.sql";
+
+    @Test
+    public void deveConverterATabelaComumEmParticionadaPorAno() throws Exception {
+        try (Connection conexao = ApoioBenchmark.conectarPostgres();
+             Statement sql = conexao.createStatement()) {
+            //cenario
+            criarTabelaComum(sql);
+            int atual = Year.now().getValue();
+
+            //execucao
+            sql.execute(migracao());
+
+            //verificacao
+            Assertions.assertThat(valor(sql, "select c.relkind from pg_class c join pg_namespace n on n.oid = c.relnamespace"
+                    + " where n.nspname = '" + SCHEMA + "' and c.relname = 'lancamento'")).isEqualTo("p");
+            Assertions.assertThat(valores(sql, "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid"
+                    + " where i.inhparent = '" + SCHEMA + ".lancamento'::regclass"))
+                    .containsExactlyInAnyOrder("lancamento_padrao", "lancamento_2022", "lancamento_2023", "lancamento_" + atual, "lancamento_" + (atual + 1));
+            Assertions.assertThat(valor(sql, "select count(*) from " + SCHEMA + ".lancamento")).isEqualTo("30");
+            Assertions.assertThat(valor(sql, "select count(*) from only " + SCHEMA + ".lancamento_2022")).isEqualTo("10");
+            Assertions.assertThat(valor(sql, "select count(*) from only " + SCHEMA + ".lancamento_padrao")).isEqualTo("0");
+            Assertions.assertThat(valor(sql, "select to_regclass('" + SCHEMA + ".lancamento_legado')")).isNull();
+            Assertions.assertThat(valores(sql, "select indexname from pg_indexes where schemaname = '" + SCHEMA + "' and tablename = 'lancamento'"))
+                    .contains("pk_lancamento_id_ano", "idx_lancamento_usuario_ano_mes_id", "idx_lancamento_usuario_descricao_prefixo")
+                    .doesNotContain("idx_lancamento_usuario_data_cadastro", "idx_lancamento_usuario_descricao"); // no postgres so o pattern_ops
+
+            sql.execute("drop schema " + SCHEMA + " cascade");
+        }
+    }
+
+    @Test
+    public void deveRecusarLancamentoSemAnoSemAlterarATabela() throws Exception {
+        try (Connection conexao = ApoioBenchmark.conectarPostgres();
+             Statement sql = conexao.createStatement()) {
+            //cenario
+            criarTabelaComum(sql);
+            sql.execute("update " + SCHEMA + ".lancamento set ano = null where id in (1, 2)");
+
+            //execucao
+            Throwable erro = Assertions.catchThrowable(() -> sql.execute(migracao()));
+            sql.execute("rollback");
+
+            //verificacao
+            Assertions.assertThat(erro).isInstanceOf(SQLException.class).hasMessageContaining("2 lancamento(s) sem ano");
+            Assertions.assertThat(valor(sql, "select c.relkind from pg_class c join pg_namespace n on n.oid = c.relnamespace"
+                    + " where n.nspname = '" + SCHEMA + "' and c.relname = 'lancamento'")).isEqualTo("r"); // continua a tabela comum
+            Assertions.assertThat(valor(sql, "select count(*) from " + SCHEMA + ".lancamento")).isEqualTo("30");
+
+            sql.execute("drop schema " + SCHEMA + " cascade");
+        }
+    }
+
+    private void criarTabelaComum(Statement sql) throws SQLException {
+        // as colunas que o ddl-auto cria para Lancamento, com o indice antigo de data_cadastro
+        sql.execute("drop schema if exists " + SCHEMA + " cascade");
+        sql.execute("create schema " + SCHEMA);
+        sql.execute("create table " + SCHEMA + ".usuario (id bigint primary key)");
+        sql.execute("create table " + SCHEMA + ".lancamento (id bigint primary key, descricao varchar(255), descricao_normalizada varchar(255), mes integer, ano integer,"
+                + " id_usuario bigint references " + SCHEMA + ".usuario (id), valor numeric(38, 2), data_cadastro timestamp(6) with time zone, competencia date,"
+                + " tipo varchar(255) check (tipo in ('RECEITA', 'DESPESA')), status varchar(255))");
+        sql.execute("create index idx_lancamento_usuario_data_cadastro on " + SCHEMA + ".lancamento (id_usuario, data_cadastro)");
+        sql.execute("insert into " + SCHEMA + ".usuario values (1), (2)");
+        int atual = Year.now().getValue();
+        sql.execute("insert into " + SCHEMA + ".lancamento select g, 'Lancamento ' || g, 'lancamento ' || g, 1 + g % 12,"
+                + " case when g <= 10 then 2022 when g <= 20 then 2023 else " + atual + " end, 1 + g % 2, g, current_timestamp, current_date,"
+                + " case when g % 2 = 0 then 'RECEITA' else 'DESPESA' end, 'PENDENTE' from generate_series(1, 30) g");
+    }
+
+    private String migracao() throws Exception {
+        try (InputStream script = getClass().getResourceAsStream(MIGRACAO)) {
+            return new String(script.readAllBytes(), StandardCharsets.UTF_8).replace("financas.", SCHEMA + ".");
+        }
+    }
+
+    private String valor(Statement sql, String consulta) throws SQLException {
+        try (ResultSet resultado = sql.executeQuery(consulta)) {
+            return resultado.next() ? resultado.getString(1) : null;
+        }
+    }
+
+    private List<String> valores(Statement sql, String consulta) throws SQLException {
+        List<String> valores = new ArrayList<>();
+        try (ResultSet resultado = sql.executeQuery(consulta)) {
+            while (resultado.next()) {
+                valores.add(resultado.getString(1));
+            }
+        }
+        return valores;
+    }
+}
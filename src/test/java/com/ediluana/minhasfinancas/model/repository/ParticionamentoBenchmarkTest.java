@@ -0,0 +1,104 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.ApoioBenchmark;
+import org.HdrHistogram.Histogram;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// latencia da consulta de um ano conforme o historico cresce: tabela comum x particionada por ano (mesmo ddl do ParticoesLancamento)
+// precisa de um PostgreSQL descartavel: o schema benchmark_particao eh apagado e recriado
+// executar com: ./mvnw test -Dtest=ParticionamentoBenchmarkTest -Dparticionamento.url=jdbc:postgresql://localhost:5432/scratch
+//               [-Dparticionamento.usuario=postgres -Dparticionamento.senha=postgres -Dparticionamento.anos=8 -Dparticionamento.linhas=200000]
+@ApoioBenchmark.ComPostgres
+public class ParticionamentoBenchmarkTest {
+
+    private static final String SCHEMA = "benchmark_particao";
+
+    private static final int ANO_CONSULTADO = 2024;
+
+    private static final int CONSULTAS = 200;
+
+    @Test
+    public void latenciaPorAnoNaoDeveCrescerComOHistorico() throws Exception {
+        int anos = Integer.getInteger("particionamento.anos", 8);
+        int linhasPorAno = Integer.getInteger("particionamento.linhas", 200000);
+        double tolerancia = Double.parseDouble(System.getProperty("particionamento.tolerancia", "2"));
+
+        try (Connection conexao = ApoioBenchmark.conectarPostgres();
+             Statement sql = conexao.createStatement()) {
+            criarTabelas(sql);
+
+            List<long[]> medidas = new ArrayList<>(); // anos de historico, p50 comum, p50 particionada (micros)
+            for (int ano = ANO_CONSULTADO; ano > ANO_CONSULTADO - anos; ano--) { // o historico cresce para tras, o ano consultado fica o mesmo
+                inserirAno(sql, ano, linhasPorAno);
+                int historico = ANO_CONSULTADO - ano + 1;
+                if (Integer.bitCount(historico) != 1 && historico != anos) { // mede com 1, 2, 4, 8... anos
+                    continue;
+                }
+                sql.execute("analyze " + SCHEMA + ".comum");
+                sql.execute("analyze " + SCHEMA + ".particionada");
+                Histogram comum = medir(conexao, "comum");
+                Histogram particionada = medir(conexao, "particionada");
+                medidas.add(new long[]{historico, comum.getValueAtPercentile(50), particionada.getValueAtPercentile(50)});
+                System.out.printf("anos=%2d linhas=%9d | comum p50=%7d us p99=%7d us | particionada p50=%7d us p99=%7d us%n", historico, (long) historico * linhasPorAno,
+                        comum.getValueAtPercentile(50), comum.getValueAtPercentile(99), particionada.getValueAtPercentile(50), particionada.getValueAtPercentile(99));
+            }
+
+            sql.execute("drop schema " + SCHEMA + " cascade");
+
+            long inicial = Math.max(medidas.get(0)[2], 1000); // piso de 1 ms: abaixo disso eh ruido de rede/jdbc
+            long finalComHistorico = medidas.get(medidas.size() - 1)[2];
+            Assertions.assertThat(finalComHistorico).as("p50 da particionada com %d anos de historico", anos).isLessThanOrEqualTo((long) (inicial * tolerancia));
+        }
+    }
+
+    private void criarTabelas(Statement sql) throws SQLException {
+        sql.execute("drop schema if exists " + SCHEMA + " cascade");
+        sql.execute("create schema " + SCHEMA);
+        String colunas = " (id bigint not null, id_usuario bigint not null, ano integer not null, mes integer not null, tipo varchar(255), status varchar(255), valor numeric(19, 2))";
+        sql.execute("create table " + SCHEMA + ".comum" + colunas);
+        sql.execute("alter table " + SCHEMA + ".comum add primary key (id)");
+        sql.execute("create table " + SCHEMA + ".particionada" + colunas + " partition by range (ano)");
+        sql.execute("alter table " + SCHEMA + ".particionada add primary key (id, ano)");
+        sql.execute("create table " + SCHEMA + ".particionada_padrao partition of " + SCHEMA + ".particionada default");
+        for (String tabela : List.of("comum", "particionada")) { // mesmo indice de usuario/periodo declarado em Lancamento
+            sql.execute("create index on " + SCHEMA + "." + tabela + " (id_usuario, ano, mes, id)");
+        }
+    }
+
+    private void inserirAno(Statement sql, int ano, int linhas) throws SQLException {
+        sql.execute(ParticoesLancamento.criarParticao(SCHEMA + ".particionada", ano));
+        for (String tabela : List.of("comum", "particionada")) { // gerado no banco: 1000 usuarios, 12 meses
+            sql.execute("insert into " + SCHEMA + "." + tabela + " select " + ano + "::bigint * 100000000 + g, g % 1000, " + ano + ", 1 + g % 12,"
+                    + " case when g % 2 = 0 then 'RECEITA' else 'DESPESA' end, 'EFETIVADO', (g % 50000) / 100.0 from generate_series(1, " + linhas + ") g");
+        }
+    }
+
+    private Histogram medir(Connection conexao, String tabela) throws SQLException {
+        // resumo do ano de todos os usuarios (o filtro por ano sem usuario nao tem indice: na comum varre o historico inteiro)
+        Histogram latencias = new Histogram(60_000_000L, 3);
+        try (PreparedStatement consulta = conexao.prepareStatement("select mes, tipo, sum(valor) from " + SCHEMA + "." + tabela + " where ano = ? group by mes, tipo")) {
+            for (int i = 0; i < CONSULTAS + CONSULTAS / 10; i++) {
+                consulta.setInt(1, ANO_CONSULTADO);
+                long inicio = System.nanoTime();
+                try (ResultSet resultado = consulta.executeQuery()) {
+                    while (resultado.next()) {
+                        resultado.getBigDecimal(3);
+                    }
+                }
+                if (i >= CONSULTAS / 10) { // primeiras 10% aquecem cache e plano
+                    latencias.recordValue((System.nanoTime() - inicio) / 1000);
+                }
+            }
+        }
+        return latencias;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Year;
+
+public class ParticoesLancamentoTest {
+
+    @Test
+    public void naoDeveAcessarOBancoQuandoDesabilitado() {
+        //cenario
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        ParticoesLancamento particoes = new ParticoesLancamento(dataSource, false);
+
+        //execucao
+        particoes.afterSingletonsInstantiated();
+        particoes.garantir(2024);
+
+        //verificacao
+        Assertions.assertThat(particoes.isAtivo()).isFalse();
+        Mockito.verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    public void deveIgnorarBancoQueNaoSejaPostgres() throws Exception {
+        //cenario
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Connection conexao = Mockito.mock(Connection.class);
+        DatabaseMetaData metadados = Mockito.mock(DatabaseMetaData.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(conexao);
+        Mockito.when(conexao.getMetaData()).thenReturn(metadados);
+        Mockito.when(metadados.getDatabaseProductName()).thenReturn("H2");
+        ParticoesLancamento particoes = new ParticoesLancamento(dataSource, true);
+
+        //execucao
+        particoes.afterSingletonsInstantiated();
+        particoes.garantir(2024);
+
+        //verificacao
+        Assertions.assertThat(particoes.isAtivo()).isFalse();
+        Mockito.verify(dataSource, Mockito.times(1)).getConnection(); // so a conexao da verificacao, nenhum ddl
+        Mockito.verify(conexao, Mockito.never()).createStatement();
+        Mockito.verify(conexao).close();
+    }
+
+    @Test
+    public void naoDeveConverterATabelaComumNaSubida() throws Exception {
+        //cenario
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Connection conexao = Mockito.mock(Connection.class);
+        DatabaseMetaData metadados = Mockito.mock(DatabaseMetaData.class);
+        Statement sql = Mockito.mock(Statement.class);
+        ResultSet tipo = Mockito.mock(ResultSet.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(conexao);
+        Mockito.when(conexao.getMetaData()).thenReturn(metadados);
+        Mockito.when(conexao.createStatement()).thenReturn(sql);
+        Mockito.when(metadados.getDatabaseProductName()).thenReturn("PostgreSQL");
+        Mockito.when(sql.executeQuery(Mockito.contains("relkind"))).thenReturn(tipo);
+        Mockito.when(tipo.next()).thenReturn(true);
+        Mockito.when(tipo.getString(1)).thenReturn("r");
+        ParticoesLancamento particoes = new ParticoesLancamento(dataSource, true);
+
+        //execucao
+        particoes.afterSingletonsInstantiated();
+        particoes.criarProximas();
+
+        //verificacao
+        Assertions.assertThat(particoes.isAtivo()).isFalse();
+        Mockito.verify(sql, Mockito.never()).execute(Mockito.anyString()); // a conversao eh a migracao db/particionar-lancamento.sql
+    }
+
+    @Test
+    public void deveTentarDeNovoOAnoQueFalhouNaProximaExecucao() throws Exception {
+        //cenario
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Connection conexao = Mockito.mock(Connection.class);
+        DatabaseMetaData metadados = Mockito.mock(DatabaseMetaData.class);
+        Statement sql = Mockito.mock(Statement.class);
+        ResultSet tipo = Mockito.mock(ResultSet.class);
+        ResultSet particoesExistentes = Mockito.mock(ResultSet.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(conexao);
+        Mockito.when(conexao.getMetaData()).thenReturn(metadados);
+        Mockito.when(conexao.createStatement()).thenReturn(sql);
+        Mockito.when(metadados.getDatabaseProductName()).thenReturn("PostgreSQL");
+        Mockito.when(sql.executeQuery(Mockito.contains("relkind"))).thenReturn(tipo);
+        Mockito.when(tipo.next()).thenReturn(true);
+        Mockito.when(tipo.getString(1)).thenReturn("p"); // ja particionada
+        Mockito.when(sql.executeQuery(Mockito.contains("pg_inherits"))).thenReturn(particoesExistentes);
+        String proximoAno = ParticoesLancamento.criarParticao(ParticoesLancamento.TABELA, Year.now().getValue() + 1);
+        Mockito.when(sql.execute(proximoAno)).thenThrow(new SQLException("canceling statement due to lock timeout")).thenReturn(false);
+        ParticoesLancamento particoes = new ParticoesLancamento(dataSource, true);
+
+        //execucao
+        particoes.afterSingletonsInstantiated();
+        particoes.criarProximas();
+        particoes.criarProximas();
+
+        //verificacao
+        Assertions.assertThat(particoes.isAtivo()).isTrue();
+        Mockito.verify(sql, Mockito.times(2)).execute(proximoAno); // falhou na subida, criada no agendamento, depois nao repete
+        Mockito.verify(sql, Mockito.times(1)).execute(ParticoesLancamento.criarParticao(ParticoesLancamento.TABELA, Year.now().getValue()));
+        Mockito.verify(conexao).rollback();
+    }
+
+    @Test
+    public void deveCriarAParticaoDoAnoComoFaixaSemiAberta() {
+        Assertions.assertThat(ParticoesLancamento.criarParticao("financas.lancamento", 2024))
+                .isEqualTo("create table if not exists financas.lancamento_2024 partition of financas.lancamento for values from (2024) to (2025)");
+    }
+}
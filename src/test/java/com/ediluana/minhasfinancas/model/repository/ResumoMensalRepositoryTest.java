@@ -0,0 +1,79 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.model.entity.ResumoMensal;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ResumoMensalRepositoryTest {
+
+    @Autowired
+    ResumoMensalRepository repository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Test
+    public void deveCriarESomarALinhaDoMes() {
+        //execucao
+        repository.movimentar(1L, 2024, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, new BigDecimal("10.00"), 1L);
+        repository.movimentar(1L, 2024, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, new BigDecimal("5.00"), 2L);
+
+        //verificacao
+        List<ResumoMensal> resumos = obterResumos(1L);
+        Assertions.assertThat(resumos).singleElement().satisfies(resumo -> {
+            Assertions.assertThat(resumo.getValor()).isEqualByComparingTo("15");
+            Assertions.assertThat(resumo.getQuantidade()).isEqualTo(3L);
+        });
+    }
+
+    @Test
+    public void naoDeveBaixarLinhaInexistenteNemDeixarQuantidadeNegativa() {
+        //cenario
+        repository.movimentar(1L, 2024, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, new BigDecimal("10.00"), 1L);
+
+        //execucao
+        int semLinha = repository.baixar(1L, 2024, 4, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, new BigDecimal("-10.00"), -1L);
+        int negativa = repository.baixar(1L, 2024, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, new BigDecimal("-20.00"), -2L);
+
+        //verificacao
+        Assertions.assertThat(semLinha).isZero();
+        Assertions.assertThat(negativa).isZero();
+        Assertions.assertThat(obterResumos(1L)).singleElement().extracting(ResumoMensal::getQuantidade).isEqualTo(1L);
+    }
+
+    @Test
+    public void deveRemoverALinhaQueFicouVazia() {
+        //cenario
+        repository.movimentar(1L, 2024, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, new BigDecimal("10.00"), 1L);
+
+        //execucao
+        int baixadas = repository.baixar(1L, 2024, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, new BigDecimal("-10.00"), -1L);
+        repository.removerSeVazio(1L, 2024, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+
+        //verificacao
+        Assertions.assertThat(baixadas).isEqualTo(1);
+        Assertions.assertThat(obterResumos(1L)).isEmpty();
+    }
+
+    private List<ResumoMensal> obterResumos(Long idUsuario) {
+        entityManager.clear(); // upsert nativo e update em lote nao passam pelo contexto de persistencia
+        return repository.findByIdUsuario(idUsuario);
+    }
+
+}
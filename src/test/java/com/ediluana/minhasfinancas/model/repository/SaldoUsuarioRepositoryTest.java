@@ -0,0 +1,67 @@
+package com.ediluana.minhasfinancas.model.repository;
+
+import com.ediluana.minhasfinancas.model.entity.SaldoUsuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class SaldoUsuarioRepositoryTest {
+
+    @Autowired
+    SaldoUsuarioRepository repository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Test
+    public void deveCriarALinhaNaPrimeiraMovimentacao() {
+        //execucao
+        repository.movimentar(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, new BigDecimal("10.00"));
+
+        //verificacao
+        List<SaldoUsuario> saldos = obterSaldos(1L);
+        Assertions.assertThat(saldos).hasSize(1);
+        Assertions.assertThat(saldos.get(0).getTipo()).isEqualTo(TipoLancamento.RECEITA);
+        Assertions.assertThat(saldos.get(0).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+        Assertions.assertThat(saldos.get(0).getValor()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    public void deveSomarNaLinhaExistenteSemDuplicar() {
+        //cenario
+        repository.movimentar(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, new BigDecimal("10.00"));
+
+        //execucao
+        repository.movimentar(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, new BigDecimal("5.50"));
+        repository.movimentar(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, new BigDecimal("-3.00"));
+        repository.movimentar(1L, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, new BigDecimal("2.00"));
+
+        //verificacao
+        List<SaldoUsuario> saldos = obterSaldos(1L);
+        Assertions.assertThat(saldos).hasSize(2);
+        Assertions.assertThat(saldos).filteredOn(s -> s.getTipo() == TipoLancamento.RECEITA)
+                .singleElement().extracting(SaldoUsuario::getValor).satisfies(v -> Assertions.assertThat(v).isEqualByComparingTo("12.50"));
+        Assertions.assertThat(obterSaldos(2L)).isEmpty();
+    }
+
+    private List<SaldoUsuario> obterSaldos(Long idUsuario) {
+        entityManager.clear(); // o upsert eh nativo: le direto do banco
+        return repository.findByIdUsuario(idUsuario);
+    }
+
+}
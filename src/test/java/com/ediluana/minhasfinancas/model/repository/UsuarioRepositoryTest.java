@@ -102,6 +102,21 @@ public class UsuarioRepositoryTest {
 
     }
 
+    @Test
+    public void incrementarAVersaoDosLancamentosSemQueSalvarOUsuarioAVolte() {
+
+        //cenario
+        Usuario usuario = entityManager.persist(criarUsuario());
+        Assertions.assertThat(repository.obterVersaoLancamentos(usuario.getId())).contains(0L); // coluna ainda nula
 
+        //execucao
+        repository.incrementarVersaoLancamentos(usuario.getId());
+        repository.incrementarVersaoLancamentos(usuario.getId());
+        usuario.setNome("outro nome"); // entidade carregada antes dos incrementos
+        entityManager.flush();
 
+        //verificacao
+        Assertions.assertThat(repository.obterVersaoLancamentos(usuario.getId())).contains(2L);
+        Assertions.assertThat(repository.obterVersaoLancamentos(-1L)).isEmpty();
+    }
 }
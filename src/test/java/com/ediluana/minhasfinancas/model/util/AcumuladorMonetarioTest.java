@@ -0,0 +1,74 @@
+package com.ediluana.minhasfinancas.model.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class AcumuladorMonetarioTest {
+
+    @Test
+    public void deveSomarExatamenteComoBigDecimalInclusiveAEscala() {
+        SplittableRandom aleatorio = new SplittableRandom(2024);
+        for (int rodada = 0; rodada < 1000; rodada++) {
+            //cenario
+            List<BigDecimal> valores = new ArrayList<>();
+            int escalaMaxima = aleatorio.nextInt(3); // lotes so de inteiros, ate 1 casa ou ate 2 casas
+            for (int i = aleatorio.nextInt(200); i > 0; i--) {
+                valores.add(BigDecimal.valueOf(aleatorio.nextLong(-10_000_000_000L, 10_000_000_000L), aleatorio.nextInt(escalaMaxima + 1)));
+            }
+
+            //execucao
+            BigDecimal esperado = valores.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal total = valores.stream().collect(AcumuladorMonetario.somando(v -> v)).total();
+
+            //verificacao
+            Assertions.assertThat(total).isEqualTo(esperado); // equals: mesmo valor e mesma escala
+        }
+    }
+
+    @Test
+    public void deveSubtrairComoBigDecimal() {
+        //cenario
+        BigDecimal receita = new BigDecimal("1500.50");
+        BigDecimal despesa = new BigDecimal("2000.75");
+
+        //execucao
+        BigDecimal saldo = new AcumuladorMonetario().somar(receita).subtrair(despesa).total();
+
+        //verificacao
+        Assertions.assertThat(saldo).isEqualTo(BigDecimal.ZERO.add(receita).subtract(despesa));
+        Assertions.assertThat(saldo).isEqualTo(new BigDecimal("-500.25"));
+    }
+
+    @Test
+    public void deveAceitarZerosAlemDaSegundaCasaEManterAEscala() {
+        //execucao
+        AcumuladorMonetario soma = new AcumuladorMonetario().somar(new BigDecimal("1.500")).somar(new BigDecimal("1E+3"));
+
+        //verificacao
+        Assertions.assertThat(soma.centavos()).isEqualTo(100150);
+        Assertions.assertThat(soma.total()).isEqualTo(BigDecimal.ZERO.add(new BigDecimal("1.500")).add(new BigDecimal("1E+3")));
+        Assertions.assertThat(soma.quantidade()).isEqualTo(2);
+    }
+
+    @Test
+    public void deveRejeitarMaisDeDuasCasasDecimais() {
+        //execucao e verificacao
+        Assertions.assertThatThrownBy(() -> AcumuladorMonetario.centavos(new BigDecimal("10.005"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    public void deveDetectarEstouro() {
+        //cenario
+        BigDecimal grande = BigDecimal.valueOf(Long.MAX_VALUE / 2, 2);
+        AcumuladorMonetario soma = new AcumuladorMonetario().somar(grande).somar(grande);
+
+        //execucao e verificacao
+        Assertions.assertThatThrownBy(() -> soma.somar(grande)).isInstanceOf(ArithmeticException.class).hasMessageContaining("Estouro");
+        Assertions.assertThatThrownBy(() -> AcumuladorMonetario.centavos(new BigDecimal("100000000000000000000"))).isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.ediluana.minhasfinancas.service;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.ResumoMensal;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
+import com.ediluana.minhasfinancas.service.impl.DashboardServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+public class DashboardServiceTest {
+
+    LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+    ResumoService resumoService = Mockito.mock(ResumoService.class);
+    PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+    DashboardServiceImpl service;
+
+    DashboardServiceImpl criar(Duration timeout) {
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+        service = new DashboardServiceImpl(lancamentoService, resumoService, transactionManager, 4, 16, timeout);
+        return service;
+    }
+
+    @AfterEach
+    public void encerrar() {
+        service.encerrar();
+    }
+
+    @Test
+    public void deveMontarODashboardComAsTresPartes() {
+        //cenario
+        criar(Duration.ofSeconds(5));
+        LancamentoResumido lancamento = new LancamentoResumido(1L, "mercado", 3, 2024, BigDecimal.TEN, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 1L);
+        Mockito.when(lancamentoService.obterSaldoPorUsuario(1L)).thenReturn(BigDecimal.valueOf(90));
+        Mockito.when(lancamentoService.buscar(Mockito.any(Lancamento.class))).thenReturn(List.of(lancamento));
+        Mockito.when(resumoService.obterResumo(1L, null, null)).thenReturn(Arrays.asList(
+                resumo(2024, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 10),
+                resumo(2024, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 5),
+                resumo(2024, 2, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 100),
+                resumo(2024, 2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 7)));
+
+        //execucao
+        Dashboard dashboard = service.obter(1L);
+
+        //verificacao
+        Assertions.assertThat(dashboard.indisponiveis()).isEmpty();
+        Assertions.assertThat(dashboard.saldo()).isEqualByComparingTo("90");
+        Assertions.assertThat(dashboard.lancamentosMes()).containsExactly(lancamento);
+        Assertions.assertThat(dashboard.pendentes().get(TipoLancamento.DESPESA)).isEqualByComparingTo("15");
+        Assertions.assertThat(dashboard.pendentes().get(TipoLancamento.RECEITA)).isEqualByComparingTo("7");
+
+        ArgumentCaptor<Lancamento> filtro = ArgumentCaptor.forClass(Lancamento.class);
+        Mockito.verify(lancamentoService).buscar(filtro.capture());
+        Assertions.assertThat(filtro.getValue().getUsuario().getId()).isEqualTo(1L);
+        Assertions.assertThat(filtro.getValue().getMes()).isEqualTo(LocalDate.now().getMonthValue());
+        Assertions.assertThat(filtro.getValue().getAno()).isEqualTo(LocalDate.now().getYear());
+
+        ArgumentCaptor<TransactionDefinition> transacoes = ArgumentCaptor.forClass(TransactionDefinition.class);
+        Mockito.verify(transactionManager, Mockito.times(3)).getTransaction(transacoes.capture()); // uma transacao por parte
+        Assertions.assertThat(transacoes.getAllValues()).allMatch(TransactionDefinition::isReadOnly);
+    }
+
+    @Test
+    public void deveConsultarAsPartesEmParalelo() {
+        //cenario
+        criar(Duration.ofSeconds(5));
+        Mockito.when(lancamentoService.obterSaldoPorUsuario(1L)).thenAnswer(i -> { Thread.sleep(300); return BigDecimal.ONE; });
+        Mockito.when(lancamentoService.buscar(Mockito.any(Lancamento.class))).thenAnswer(i -> { Thread.sleep(300); return List.of(); });
+        Mockito.when(resumoService.obterResumo(1L, null, null)).thenAnswer(i -> { Thread.sleep(300); return List.of(); });
+
+        //execucao
+        long inicio = System.nanoTime();
+        Dashboard dashboard = service.obter(1L);
+        long tempo = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+
+        //verificacao
+        Assertions.assertThat(dashboard.indisponiveis()).isEmpty();
+        Assertions.assertThat(tempo).isLessThan(800); // a mais lenta (300 ms), nao a soma (900 ms)
+    }
+
+    @Test
+    public void deveRetornarResultadoParcialQuandoUmaParteFalharOuDemorar() {
+        //cenario
+        criar(Duration.ofMillis(200));
+        Mockito.when(lancamentoService.obterSaldoPorUsuario(1L)).thenReturn(BigDecimal.ONE);
+        Mockito.when(lancamentoService.buscar(Mockito.any(Lancamento.class))).thenAnswer(i -> { Thread.sleep(5000); return List.of(); });
+        Mockito.when(resumoService.obterResumo(1L, null, null)).thenThrow(new IllegalStateException("banco fora"));
+
+        //execucao
+        long inicio = System.nanoTime();
+        Dashboard dashboard = service.obter(1L);
+        long tempo = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+
+        //verificacao
+        Assertions.assertThat(dashboard.saldo()).isEqualByComparingTo("1");
+        Assertions.assertThat(dashboard.lancamentosMes()).isNull();
+        Assertions.assertThat(dashboard.pendentes()).isNull();
+        Assertions.assertThat(dashboard.indisponiveis()).containsExactly(Dashboard.LANCAMENTOS_MES, Dashboard.PENDENTES);
+        Assertions.assertThat(tempo).isLessThan(2000);
+    }
+
+    private ResumoMensal resumo(int ano, int mes, TipoLancamento tipo, StatusLancamento status, int valor) {
+        return ResumoMensal.builder().idUsuario(1L).ano(ano).mes(mes).tipo(tipo).status(status).valor(BigDecimal.valueOf(valor)).quantidade(1L).build();
+    }
+}
@@ -4,12 +4,14 @@ import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
 import com.ediluana.minhasfinancas.model.entity.Lancamento;
 import com.ediluana.minhasfinancas.model.entity.Usuario;
 import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.projection.LancamentoResumido;
 import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
 import com.ediluana.minhasfinancas.model.repository.LancamentoRepositoryTest;
 import com.ediluana.minhasfinancas.service.impl.LancamentoServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -20,9 +22,12 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 @SpringBootTest //não precisa dessa anotaçãp caso seja teste unitário
 @ExtendWith(SpringExtension.class)
@@ -125,17 +130,70 @@ public class LancamentoServiceTest {
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
         lancamento.setId(1l);
 
-        List<Lancamento> lista = Arrays.asList(lancamento); // pega vários objetos e retorna como lista
-        Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lista);
+        LancamentoResumido resumido = new LancamentoResumido(1l, lancamento.getDescricao(), lancamento.getMes(), lancamento.getAno(), lancamento.getValor(), lancamento.getTipo(), lancamento.getStatus(), null);
+        List<LancamentoResumido> lista = Arrays.asList(resumido); // pega vários objetos e retorna como lista
+        Mockito.when(repository.buscarPorFiltro(Mockito.any(Lancamento.class))).thenReturn(lista);
 
         //execucao
-        List<Lancamento> resultado = service.buscar(lancamento);
+        List<LancamentoResumido> resultado = service.buscar(lancamento);
 
         //verificacao
-        Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
+        Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(resumido);
 
     }
 
+    @Test
+    public void naoDeveFiltrarLancamentosComPeriodoInvertido() {
+        //cenario
+        Lancamento filtro = LancamentoRepositoryTest.criarLancamento();
+        filtro.setCompetenciaDe(YearMonth.of(2024, 6));
+        filtro.setCompetenciaAte(YearMonth.of(2024, 1));
+
+        //execucao
+        Throwable erro = Assertions.catchThrowable(() -> service.buscar(filtro));
+
+        //verificacao
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um período válido.");
+        Mockito.verify(repository, Mockito.never()).buscarPorFiltro(Mockito.any(Lancamento.class));
+    }
+
+    @Test
+    public void naoDeveSalvarEmLoteLancamentoComId() {
+        //cenario
+        Lancamento existente = LancamentoRepositoryTest.criarLancamento();
+        existente.setId(1L);
+        Mockito.doNothing().when(service).validar(existente);
+
+        //execucao
+        Throwable erro = Assertions.catchThrowable(() -> service.salvarEmLote(List.of(existente)));
+
+        //verificacao
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("O lote cadastra apenas lançamentos novos; não informe o Id.");
+    }
+
+    @Test
+    public void deveBuscarPaginaAposOCursorLimitandoOTamanho() {
+        //cenario
+        Lancamento filtro = LancamentoRepositoryTest.criarLancamento();
+        filtro.setUsuario(Usuario.builder().id(1L).build());
+        CursorLancamento cursor = new CursorLancamento(2019, 1, 10L);
+
+        //execucao
+        service.buscar(filtro, cursor, 10000);
+
+        //verificacao
+        Mockito.verify(repository).buscarPaginaPorFiltro(filtro, 2019, 1, 10L, 500);
+    }
+
+    @Test
+    public void deveCodificarEDecodificarCursor() {
+        CursorLancamento cursor = new CursorLancamento(2024, 12, 987654321L);
+
+        Assertions.assertThat(CursorLancamento.decodificar(cursor.codificar())).isEqualTo(cursor);
+        Assertions.assertThat(CursorLancamento.decodificar(null)).isNull();
+        Assertions.assertThat(Assertions.catchThrowable(() -> CursorLancamento.decodificar("@@@"))).isInstanceOf(RegraNegocioException.class);
+    }
+
     @Test
     public void deveAtualizarStatusLancamento() {
         //cenario
@@ -155,6 +213,49 @@ public class LancamentoServiceTest {
 
     }
 
+    @Test
+    public void deveAtualizarStatusEmLoteComUmUnicoUpdate() {
+        //cenario
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1l).build()).build();
+        List<Long> ids = Arrays.asList(1l, 2l, 3l);
+        Mockito.when(repository.atualizarStatusPorFiltro(filtro, ids, StatusLancamento.EFETIVADO)).thenReturn(3);
+
+        //execucao
+        int atualizados = service.atualizarStatusEmLote(filtro, ids, StatusLancamento.EFETIVADO);
+
+        //verificacao
+        Assertions.assertThat(atualizados).isEqualTo(3);
+        InOrder ordem = Mockito.inOrder(repository);
+        ordem.verify(repository).travarParaTransicao(filtro, ids, StatusLancamento.EFETIVADO); // trava antes de somar
+        ordem.verify(repository).obterTotaisParaTransicao(filtro, ids, StatusLancamento.EFETIVADO);
+        ordem.verify(repository).atualizarStatusPorFiltro(filtro, ids, StatusLancamento.EFETIVADO);
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void naoDeveAtualizarStatusEmLoteAcimaDoLimiteDeIds() {
+        //cenario
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1l).build()).build();
+        List<Long> ids = LongStream.rangeClosed(1, 10001).boxed().collect(Collectors.toList());
+
+        //execucao
+        Throwable erro = Assertions.catchThrowable(() -> service.atualizarStatusEmLote(filtro, ids, StatusLancamento.EFETIVADO));
+
+        //verificacao
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class);
+        Mockito.verify(repository, Mockito.never()).travarParaTransicao(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void naoDeveAtualizarStatusEmLoteSemIdsNemAno() {
+        //cenario
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1l).build()).build();
+
+        //execucao e verificacao
+        Assertions.catchThrowableOfType(() -> service.atualizarStatusEmLote(filtro, List.of(), StatusLancamento.EFETIVADO), RegraNegocioException.class);
+        Mockito.verify(repository, Mockito.never()).atualizarStatusPorFiltro(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
     @Test
     public void deveObterLancamentoPorId() {
         //cenario
@@ -237,6 +338,10 @@ public class LancamentoServiceTest {
 
         erro = Assertions.catchThrowable(() -> service.validar(lancamento));
         Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe uma Valor válido.");
+        lancamento.setValor(new BigDecimal("258.999"));
+
+        erro = Assertions.catchThrowable(() -> service.validar(lancamento));
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um Valor com no máximo 2 casas decimais.");
         lancamento.setValor(BigDecimal.valueOf(25899));
 
         erro = Assertions.catchThrowable(() -> service.validar(lancamento));
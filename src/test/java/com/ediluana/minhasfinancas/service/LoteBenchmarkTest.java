@@ -0,0 +1,64 @@
+package com.ediluana.minhasfinancas.service;
+
+import com.ediluana.minhasfinancas.ApoioBenchmark;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// importacao de 10 mil lancamentos: um salvar por item contra um salvarEmLote; o lote precisa ser ao menos 10x mais rapido
+// executar com: ./mvnw test -Dtest=LoteBenchmarkTest -Dbenchmark=true [-Dbenchmark.linhas=10000 -Dbenchmark.ganho-minimo=10]
+@SpringBootTest
+@ActiveProfiles("test")
+@ApoioBenchmark.Habilitado
+public class LoteBenchmarkTest {
+
+    @Autowired
+    LancamentoService service;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Test
+    public void compararSalvarPorItemComSalvarEmLote() {
+        int linhas = Integer.getInteger("benchmark.linhas", 10_000);
+        double ganhoMinimo = Double.parseDouble(System.getProperty("benchmark.ganho-minimo", "10"));
+        Usuario usuario = ApoioBenchmark.criarUsuario(usuarioRepository, "benchmark");
+
+        criarLancamentos(usuario, 200).forEach(service::salvar); // aquecimento: jit e pool de conexoes
+        service.salvarEmLote(criarLancamentos(usuario, 200));
+
+        long inicio = System.nanoTime();
+        criarLancamentos(usuario, linhas).forEach(service::salvar);
+        long porItem = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        service.salvarEmLote(criarLancamentos(usuario, linhas));
+        long emLote = System.nanoTime() - inicio;
+
+        System.out.printf("linhas=%d%n", linhas);
+        System.out.printf("salvar por item : %8.1f ms (%8.0f linhas/s)%n", porItem / 1e6, linhas / (porItem / 1e9));
+        System.out.printf("salvarEmLote    : %8.1f ms (%8.0f linhas/s)%n", emLote / 1e6, linhas / (emLote / 1e9));
+        System.out.printf("ganho           : %8.1fx%n", (double) porItem / emLote);
+        Assertions.assertThat((double) porItem / emLote).as("ganho do salvarEmLote sobre o salvar por item").isGreaterThanOrEqualTo(ganhoMinimo);
+    }
+
+    private List<Lancamento> criarLancamentos(Usuario usuario, int quantidade) {
+        List<Lancamento> lancamentos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            lancamentos.add(Lancamento.builder().descricao("importado " + i).mes(1 + i % 12).ano(2000 + i % 25).usuario(usuario)
+                    .valor(BigDecimal.valueOf(1 + i % 1000)).tipo(i % 2 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA).build());
+        }
+        return lancamentos;
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.ediluana.minhasfinancas.service;
+
+import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.ResumoMensal;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.TotalMensal;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.ediluana.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.ediluana.minhasfinancas.service.cache.VersaoLancamentos;
+import com.ediluana.minhasfinancas.service.impl.ResumoServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ResumoServiceTest {
+
+    @SpyBean
+    ResumoServiceImpl service;
+
+    @MockBean
+    ResumoMensalRepository repository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    VersaoLancamentos versoes;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void deveSomarLancamentoNaLinhaDoMes() {
+        //cenario
+        Lancamento lancamento = criarLancamentoDoUsuario(1L);
+
+        //execucao
+        service.registrar(lancamento);
+
+        //verificacao
+        Mockito.verify(repository).movimentar(1L, 2019, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(10), 1L); // upsert: cria ou soma
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(ResumoMensal.class));
+    }
+
+    @Test
+    public void deveRemoverResumoQuandoUltimoLancamentoDoMesForEstornado() {
+        //cenario
+        Lancamento lancamento = criarLancamentoDoUsuario(1L);
+        Mockito.when(repository.baixar(1L, 2019, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(-10), -1L)).thenReturn(1);
+
+        //execucao
+        service.estornar(lancamento);
+
+        //verificacao
+        Mockito.verify(repository).removerSeVazio(1L, 2019, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+        Mockito.verify(repository, Mockito.never()).movimentar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveReconstruirResumoAoEstornarMesSemLinha() {
+        //cenario
+        Lancamento lancamento = criarLancamentoDoUsuario(1L);
+        Mockito.when(repository.baixar(1L, 2019, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(-10), -1L)).thenReturn(0);
+
+        //execucao
+        service.estornar(lancamento);
+
+        //verificacao
+        Mockito.verify(repository).deletarPorUsuario(1L); // resumo divergente: refeito dos lancamentos, sem linha negativa
+        Mockito.verify(lancamentoRepository).obterTotaisMensais(1L);
+        Mockito.verify(versoes).incrementar(1L);
+        Mockito.verify(repository, Mockito.never()).removerSeVazio(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveGravarAsLinhasDaTransacaoEmOrdemDeChaveNoCommit() {
+        //cenario
+        Lancamento fevereiro = criarLancamentoDoUsuario(1L);
+        fevereiro.setMes(2);
+        Lancamento janeiro = criarLancamentoDoUsuario(1L);
+        Lancamento mesmaChave = criarLancamentoDoUsuario(2L);
+
+        //execucao
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            service.registrar(fevereiro);
+            service.registrar(janeiro);
+            service.estornar(mesmaChave);
+            service.registrar(mesmaChave);
+            Mockito.verifyNoInteractions(repository); // nada gravado antes do commit
+        });
+
+        //verificacao
+        InOrder ordem = Mockito.inOrder(repository); // janeiro antes de fevereiro em toda transacao: sem deadlock entre escritas cruzadas
+        ordem.verify(repository).movimentar(1L, 2019, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(10), 1L);
+        ordem.verify(repository).movimentar(1L, 2019, 2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(10), 1L);
+        Mockito.verifyNoMoreInteractions(repository); // estorno e registro do usuario 2 se anulam
+    }
+
+    @Test
+    public void deveLancarErroQuandoIntervaloDeAnosForInvalido() {
+        //execucao e verificacao
+        Throwable erro = Assertions.catchThrowable(() -> service.obterResumo(1L, 2024, 2020));
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um intervalo de anos válido.");
+    }
+
+    @Test
+    public void deveConsultarResumoPeloIntervaloDeAnos() {
+        //execucao
+        service.obterResumo(1L, 2020, 2024);
+
+        //verificacao
+        Mockito.verify(repository).findByIdUsuarioAndAnoBetweenOrderByAnoAscMesAsc(1L, 2020, 2024);
+    }
+
+    @Test
+    public void deveReconstruirLancamentosSemStatusNaLinhaPendenteDoMes() {
+        //cenario
+        Mockito.when(lancamentoRepository.obterTotaisMensais(1L)).thenReturn(Arrays.asList(
+                total(null, BigDecimal.ONE, 1L), total(StatusLancamento.PENDENTE, BigDecimal.TEN, 2L)));
+
+        //execucao
+        service.reconstruir(1L);
+
+        //verificacao
+        Mockito.verify(versoes).incrementar(1L); // novo ETag do saldo e do resumo
+        ArgumentCaptor<Collection<ResumoMensal>> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(repository).saveAll(captor.capture());
+        Assertions.assertThat(captor.getValue()).singleElement().satisfies(resumo -> { // uma linha so: nulo nao duplica a chave unica
+            Assertions.assertThat(resumo.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+            Assertions.assertThat(resumo.getValor()).isEqualByComparingTo(new BigDecimal("11"));
+            Assertions.assertThat(resumo.getQuantidade()).isEqualTo(3L);
+        });
+    }
+
+    private TotalMensal total(StatusLancamento status, BigDecimal valor, Long quantidade) {
+        return new TotalMensal() {
+            public Integer getAno() { return 2019; }
+            public Integer getMes() { return 1; }
+            public TipoLancamento getTipo() { return TipoLancamento.RECEITA; }
+            public StatusLancamento getStatus() { return status; }
+            public BigDecimal getTotal() { return valor; }
+            public Long getQuantidade() { return quantidade; }
+        };
+    }
+
+    private Lancamento criarLancamentoDoUsuario(Long idUsuario) {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+        return lancamento;
+    }
+
+}
@@ -0,0 +1,238 @@
+package com.ediluana.minhasfinancas.service;
+
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.SaldoUsuario;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.enums.StatusLancamento;
+import com.ediluana.minhasfinancas.model.enums.TipoLancamento;
+import com.ediluana.minhasfinancas.model.projection.TotalPorTipoEStatus;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.ediluana.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.ediluana.minhasfinancas.service.cache.VersaoLancamentos;
+import com.ediluana.minhasfinancas.service.impl.SaldoServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SaldoServiceTest {
+
+    @SpyBean
+    SaldoServiceImpl service;
+
+    @MockBean
+    SaldoUsuarioRepository repository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    VersaoLancamentos versoes;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void deveSomarValorNaLinhaDoSaldo() {
+        //cenario
+        Lancamento lancamento = criarLancamentoDoUsuario(1L);
+
+        //execucao
+        service.registrar(lancamento);
+
+        //verificacao
+        Mockito.verify(repository).movimentar(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(10)); // upsert: cria ou soma
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(SaldoUsuario.class));
+    }
+
+    @Test
+    public void deveEstornarValorDoSaldo() {
+        //cenario
+        Lancamento lancamento = criarLancamentoDoUsuario(1L);
+
+        //execucao
+        service.estornar(lancamento);
+
+        //verificacao
+        Mockito.verify(repository).movimentar(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(-10));
+    }
+
+    @Test
+    public void naoDeveMovimentarSaldoDeLancamentoSemUsuario() {
+        //cenario
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+
+        //execucao
+        service.registrar(lancamento);
+
+        //verificacao
+        Mockito.verify(repository, Mockito.never()).movimentar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveMovimentarSaldoUmaVezPorGrupoNoLote() {
+        //cenario
+        Lancamento primeiro = criarLancamentoDoUsuario(1L);
+        Lancamento segundo = criarLancamentoDoUsuario(1L);
+        Lancamento despesa = criarLancamentoDoUsuario(1L);
+        despesa.setTipo(TipoLancamento.DESPESA);
+
+        //execucao
+        service.registrarTodos(Arrays.asList(primeiro, segundo, despesa));
+
+        //verificacao
+        Mockito.verify(repository, Mockito.times(1)).movimentar(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(20));
+        Mockito.verify(repository, Mockito.times(1)).movimentar(1L, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.valueOf(10));
+    }
+
+    @Test
+    public void deveGravarAsLinhasDaTransacaoEmOrdemDeChaveNoCommit() {
+        //cenario
+        Lancamento anterior = criarLancamentoDoUsuario(1L);
+        anterior.setTipo(TipoLancamento.DESPESA);
+        Lancamento atualizado = criarLancamentoDoUsuario(1L);
+        Lancamento mesmaChave = criarLancamentoDoUsuario(2L);
+
+        //execucao
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> { // como no atualizar: estorna DESPESA, registra RECEITA
+            service.estornar(anterior);
+            service.registrar(atualizado);
+            service.estornar(mesmaChave);
+            service.registrar(mesmaChave);
+            Mockito.verifyNoInteractions(repository); // nada gravado antes do commit
+        });
+
+        //verificacao
+        InOrder ordem = Mockito.inOrder(repository); // a mesma ordem em toda transacao: RECEITA antes de DESPESA, sem deadlock entre atualizacoes cruzadas
+        ordem.verify(repository).movimentar(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(10));
+        ordem.verify(repository).movimentar(1L, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.valueOf(-10));
+        Mockito.verify(repository, Mockito.never()).movimentar(Mockito.eq(2L), Mockito.any(), Mockito.any(), Mockito.any()); // estorno e registro se anulam
+    }
+
+    @Test
+    public void deveObterSaldoSubtraindoDespesasDasReceitas() {
+        //cenario
+        Mockito.when(repository.findByIdUsuario(1L)).thenReturn(Arrays.asList(
+                SaldoUsuario.builder().idUsuario(1L).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).valor(BigDecimal.valueOf(100)).build(),
+                SaldoUsuario.builder().idUsuario(1L).tipo(TipoLancamento.RECEITA).status(StatusLancamento.EFETIVADO).valor(BigDecimal.valueOf(50)).build(),
+                SaldoUsuario.builder().idUsuario(1L).tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).valor(BigDecimal.valueOf(30)).build()));
+
+        //execucao
+        BigDecimal saldo = service.obterSaldo(1L);
+
+        //verificacao
+        Assertions.assertThat(saldo).isEqualByComparingTo(BigDecimal.valueOf(120));
+    }
+
+    @Test
+    public void deveObterSaldoZeradoQuandoNaoHouverLancamentos() {
+        //execucao
+        BigDecimal saldo = service.obterSaldo(1L);
+
+        //verificacao
+        Assertions.assertThat(saldo).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    public void deveVerificarSaldoConsistente() {
+        //cenario
+        Mockito.when(repository.findByIdUsuario(1L)).thenReturn(Arrays.asList(
+                SaldoUsuario.builder().idUsuario(1L).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).valor(new BigDecimal("10.00")).build(),
+                SaldoUsuario.builder().idUsuario(1L).tipo(TipoLancamento.DESPESA).status(StatusLancamento.CANCELADO).valor(BigDecimal.ZERO).build()));
+        Mockito.when(lancamentoRepository.obterTotaisPorTipoEStatus(1L)).thenReturn(Arrays.asList(total(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.TEN)));
+
+        //execucao e verificacao
+        Assertions.assertThat(service.verificar(1L)).isTrue();
+    }
+
+    @Test
+    public void deveDetectarSaldoDivergente() {
+        //cenario
+        Mockito.when(repository.findByIdUsuario(1L)).thenReturn(Arrays.asList(
+                SaldoUsuario.builder().idUsuario(1L).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).valor(BigDecimal.ONE).build()));
+        Mockito.when(lancamentoRepository.obterTotaisPorTipoEStatus(1L)).thenReturn(Arrays.asList(total(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.TEN)));
+
+        //execucao e verificacao
+        Assertions.assertThat(service.verificar(1L)).isFalse();
+    }
+
+    @Test
+    public void deveReconstruirSaldoAPartirDosLancamentos() {
+        //cenario
+        Mockito.when(lancamentoRepository.obterTotaisPorTipoEStatus(1L)).thenReturn(Arrays.asList(total(TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, BigDecimal.TEN)));
+
+        //execucao
+        service.reconstruir(1L);
+
+        //verificacao
+        Mockito.verify(versoes).incrementar(1L); // novo ETag do saldo e do resumo
+        Mockito.verify(repository).deletarPorUsuario(1L);
+        ArgumentCaptor<List<SaldoUsuario>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(repository).saveAll(captor.capture());
+        Assertions.assertThat(captor.getValue()).hasSize(1);
+        Assertions.assertThat(captor.getValue().get(0).getValor()).isEqualByComparingTo(BigDecimal.TEN);
+    }
+
+    @Test
+    public void deveReconstruirLancamentosSemStatusNaLinhaPendente() {
+        //cenario
+        Mockito.when(lancamentoRepository.obterTotaisPorTipoEStatus(1L)).thenReturn(Arrays.asList(
+                total(TipoLancamento.RECEITA, null, BigDecimal.ONE), total(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.TEN)));
+
+        //execucao
+        service.reconstruir(1L);
+
+        //verificacao
+        ArgumentCaptor<List<SaldoUsuario>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(repository).saveAll(captor.capture());
+        Assertions.assertThat(captor.getValue()).hasSize(1); // uma linha so: nulo nao duplica a chave unica
+        Assertions.assertThat(captor.getValue().get(0).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+        Assertions.assertThat(captor.getValue().get(0).getValor()).isEqualByComparingTo(new BigDecimal("11"));
+    }
+
+    @Test
+    public void deveMovimentarLancamentoSemStatusNaLinhaPendente() {
+        //cenario
+        Lancamento lancamento = criarLancamentoDoUsuario(1L);
+        lancamento.setStatus(null);
+
+        //execucao
+        service.registrar(lancamento);
+
+        //verificacao
+        Mockito.verify(repository).movimentar(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(10));
+    }
+
+    private Lancamento criarLancamentoDoUsuario(Long idUsuario) {
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+        return lancamento;
+    }
+
+    private TotalPorTipoEStatus total(TipoLancamento tipo, StatusLancamento status, BigDecimal valor) {
+        return new TotalPorTipoEStatus() {
+            public TipoLancamento getTipo() { return tipo; }
+            public StatusLancamento getStatus() { return status; }
+            public BigDecimal getTotal() { return valor; }
+        };
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.ediluana.minhasfinancas.service;
+
+import com.ediluana.minhasfinancas.service.impl.TokenServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class TokenServiceTest {
+
+    TokenService service = new TokenServiceImpl("segredo-de-teste", Duration.ofHours(1));
+
+    @Test
+    public void deveValidarTokenGerado() {
+        //execucao
+        String token = service.gerar(42L);
+
+        //verificacao
+        Assertions.assertThat(service.validar(token)).isEqualTo(42L);
+    }
+
+    @Test
+    public void deveRecusarTokenAlteradoOuDeOutraChave() {
+        //cenario
+        String token = service.gerar(42L);
+        String outroUsuario = new TokenServiceImpl("segredo-de-teste", Duration.ofHours(1)).gerar(43L);
+        String payloadTrocado = outroUsuario.substring(0, outroUsuario.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        //verificacao
+        Assertions.assertThat(service.validar(payloadTrocado)).isNull();
+        Assertions.assertThat(new TokenServiceImpl("outro-segredo", Duration.ofHours(1)).validar(token)).isNull();
+        Assertions.assertThat(service.validar("lixo")).isNull();
+        Assertions.assertThat(service.validar("@@.@@")).isNull();
+        Assertions.assertThat(service.validar(null)).isNull();
+    }
+
+    @Test
+    public void deveRecusarTokenExpirado() {
+        TokenService expirado = new TokenServiceImpl("segredo-de-teste", Duration.ofSeconds(-1));
+
+        Assertions.assertThat(expirado.validar(expirado.gerar(42L))).isNull();
+    }
+}
@@ -4,6 +4,7 @@ import com.ediluana.minhasfinancas.excepition.ErroAutenticacao;
 import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
 import com.ediluana.minhasfinancas.model.entity.Usuario;
 import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import com.ediluana.minhasfinancas.service.cache.EmailsCadastrados;
 import com.ediluana.minhasfinancas.service.impl.UsuarioServiceImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -38,6 +40,9 @@ public class UsuarioServiceTest {
     @SpyBean
     UsuarioServiceImpl service;
 
+    @Autowired
+    EmailsCadastrados emails;
+
     //FORMA PADRAO DE CRIAR MOCK E SPY
 //    @BeforeEach //sinalizar que o método anotado deve ser executado antes de cada invocação do método @Test
 //    public void setUp() {
@@ -152,6 +157,7 @@ public class UsuarioServiceTest {
         //cenario
 //        Usuario usuario = Usuario.builder().nome("Usuario").email("ediluana@unicamp.br").build();
 //        repository.save(usuario);
+        emails.adicionar("ediluana@unicamp.br"); // email conhecido pelo filtro de bloom, a confirmacao vem do banco
         Mockito.when(repository.existsByEmail(Mockito.anyString())).thenReturn(true);
 
         //acao
@@ -162,4 +168,47 @@ public class UsuarioServiceTest {
 
     }
 
+    @Test
+    public void naoDeveConsultarOBancoParaEmailForaDoFiltro() {
+        //acao e verificacao
+        Assertions.assertDoesNotThrow(() -> service.validarEmail("nunca-cadastrado@unicamp.br"));
+        Mockito.verify(repository, Mockito.never()).existsByEmail(Mockito.anyString());
+    }
+
+    @Test
+    public void deveTraduzirViolacaoDoEmailUnicoEmRegraNegocio() {
+        //cenario
+        Usuario usuario = Usuario.builder().email("concorrente@unicamp.br").senha("senha").build();
+        Mockito.when(repository.save(Mockito.any(Usuario.class))).thenThrow(new DataIntegrityViolationException("uk_usuario_email"));
+
+        //acao e verificacao
+        RegraNegocioException exception = Assertions.assertThrows(RegraNegocioException.class, () -> service.salvarUsuario(usuario));
+        assertThat(exception.getMessage(), is("Já existe um usuário cadastrado com este email."));
+    }
+
+    @Test
+    public void deveConsultarExistenciaDoUsuarioUmaVez() {
+        //cenario
+        Mockito.when(repository.existsById(10L)).thenReturn(true);
+
+        //acao
+        boolean primeira = service.existe(10L);
+        boolean segunda = service.existe(10L);
+
+        //verificacao
+        Assertions.assertTrue(primeira && segunda);
+        Mockito.verify(repository, Mockito.times(1)).existsById(10L); // segunda vez vem do cache
+    }
+
+    @Test
+    public void deveLancarErroAoObterReferenciaDeUsuarioInexistente() {
+        //cenario
+        Mockito.when(repository.existsById(11L)).thenReturn(false);
+
+        //acao e verificacao
+        Assertions.assertThrows(RegraNegocioException.class, () -> service.obterReferencia(11L));
+        Mockito.verify(repository, Mockito.never()).getReferenceById(Mockito.anyLong());
+        Assertions.assertFalse(service.existe(null));
+    }
+
 }
@@ -0,0 +1,109 @@
+package com.ediluana.minhasfinancas.service.busca;
+
+import com.ediluana.minhasfinancas.ApoioBenchmark;
+import com.ediluana.minhasfinancas.model.entity.Lancamento;
+import com.ediluana.minhasfinancas.model.entity.Usuario;
+import com.ediluana.minhasfinancas.model.repository.LancamentoRepository;
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import com.ediluana.minhasfinancas.model.util.Texto;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// comparacao da busca antiga (Example, lower(descricao) like '%x%') com o indice invertido em 1 milhao de lancamentos
+// o indice precisa achar os mesmos lancamentos e responder (casamento + leitura por ids) mais rapido que o Example
+// executar com: ./mvnw test -Dtest=BuscaTextualBenchmarkTest -Dbenchmark=true -DargLine=-Xmx3500m [-Dbenchmark.linhas=1000000] (1 milhao de linhas no H2 em memoria nao cabe no heap padrao)
+@SpringBootTest
+@ActiveProfiles("test")
+@ApoioBenchmark.Habilitado
+public class BuscaTextualBenchmarkTest {
+
+    static final String[] PALAVRAS = {"mercado", "aluguel", "farmacia", "padaria", "combustivel", "restaurante", "cinema", "academia",
+            "salario", "freelance", "energia", "agua", "internet", "telefone", "seguro", "escola", "livraria", "viagem", "hotel", "uber",
+            "condominio", "imposto", "presente", "roupa", "sapato", "medico", "dentista", "pet", "racao", "streaming"};
+
+    @Autowired
+    LancamentoRepository repository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void compararBuscaPorExampleComIndiceInvertido() {
+        int linhas = Integer.getInteger("benchmark.linhas", 1_000_000);
+        Usuario usuario = ApoioBenchmark.criarUsuario(usuarioRepository, "benchmark");
+        popular(usuario.getId(), linhas);
+
+        Lancamento filtro = Lancamento.builder().usuario(usuario).descricao("farmacia").build();
+        Example<Lancamento> example = Example.of(filtro, ExampleMatcher.matching().withIgnoreCase().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+
+        IndiceTextual indice = new IndiceTextual(true, Long.MAX_VALUE, Duration.ofHours(1), repository, Mockito.mock(ObjectProvider.class));
+
+        long inicio = System.nanoTime();
+        indice.buscar(usuario.getId(), "aquecimento");
+        long tempoCarga = System.nanoTime() - inicio;
+
+        int repeticoes = 5;
+        long tempoExample = 0, tempoCasamento = 0, tempoLeitura = 0;
+        int encontradosExample = 0, encontradosIndice = 0;
+        for (int i = 0; i < repeticoes; i++) {
+            inicio = System.nanoTime();
+            encontradosExample = repository.findAll(example).size();
+            tempoExample += System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            long[] ids = indice.buscar(usuario.getId(), "farmacia");
+            tempoCasamento += System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            encontradosIndice = repository.buscarPorFiltroEIds(Lancamento.builder().usuario(usuario).build(), ids).size();
+            tempoLeitura += System.nanoTime() - inicio;
+        }
+
+        System.out.printf("linhas=%d encontrados(example)=%d encontrados(indice)=%d%n", linhas, encontradosExample, encontradosIndice);
+        System.out.printf("example (banco)           : %8.1f ms/consulta%n", tempoExample / 1e6 / repeticoes);
+        System.out.printf("indice: carga inicial      : %8.1f ms (uma vez por usuario)%n", tempoCarga / 1e6);
+        System.out.printf("indice: casamento (memoria): %8.3f ms/consulta%n", tempoCasamento / 1e6 / repeticoes);
+        System.out.printf("indice: leitura por ids    : %8.1f ms/consulta%n", tempoLeitura / 1e6 / repeticoes);
+
+        Assertions.assertThat(encontradosIndice).as("lancamentos encontrados pelo indice").isEqualTo(encontradosExample);
+        Assertions.assertThat(tempoCasamento + tempoLeitura).as("indice (casamento + leitura) contra Example").isLessThan(tempoExample);
+    }
+
+    private void popular(Long idUsuario, int linhas) {
+        Random random = new Random(42);
+        String sql = "insert into financas.lancamento (id, descricao, descricao_normalizada, mes, ano, id_usuario, valor, tipo, status)"
+                + " values (next value for financas.lancamento_seq, ?, ?, ?, ?, ?, ?, ?, ?)"; // id da mesma sequence da entidade (H2 do perfil test)
+        List<Object[]> lote = new ArrayList<>();
+        for (int i = 0; i < linhas; i++) {
+            String descricao = PALAVRAS[random.nextInt(PALAVRAS.length)] + " " + PALAVRAS[random.nextInt(PALAVRAS.length)] + " " + i;
+            lote.add(new Object[]{descricao, Texto.normalizar(descricao), 1 + random.nextInt(12), 2000 + random.nextInt(25), idUsuario,
+                    BigDecimal.valueOf(1 + random.nextInt(100000), 2), random.nextBoolean() ? "RECEITA" : "DESPESA", "PENDENTE"});
+            if (lote.size() == 10_000) {
+                jdbcTemplate.batchUpdate(sql, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, lote);
+        }
+    }
+
+}
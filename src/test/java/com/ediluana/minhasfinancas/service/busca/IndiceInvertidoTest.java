@@ -0,0 +1,55 @@
+package com.ediluana.minhasfinancas.service.busca;
+
+import com.ediluana.minhasfinancas.model.util.Texto;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IndiceInvertidoTest {
+
+    @Test
+    public void deveCasarTodosOsTermosPorPrefixoDePalavra() {
+        //cenario
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.adicionar(1L, Texto.tokenizar("Mercado São João"));
+        indice.adicionar(2L, Texto.tokenizar("Mercado Livre"));
+        indice.adicionar(3L, Texto.tokenizar("Aluguel de São Paulo"));
+
+        //execucao e verificacao
+        Assertions.assertThat(indice.buscar(Texto.tokenizar("merc"))).containsExactly(1L, 2L);
+        Assertions.assertThat(indice.buscar(Texto.tokenizar("SAO"))).containsExactly(1L, 3L);
+        Assertions.assertThat(indice.buscar(Texto.tokenizar("mercado joão"))).containsExactly(1L);
+        Assertions.assertThat(indice.buscar(Texto.tokenizar("mercado paulo"))).isEmpty();
+        Assertions.assertThat(indice.buscar(Texto.tokenizar(""))).isEmpty();
+    }
+
+    @Test
+    public void deveRemoverLancamentoDoIndice() {
+        //cenario
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.adicionar(1L, Texto.tokenizar("conta de luz"));
+        indice.adicionar(2L, Texto.tokenizar("conta de agua"));
+
+        //execucao
+        indice.remover(1L, Texto.tokenizar("conta de luz"));
+
+        //verificacao
+        Assertions.assertThat(indice.buscar(Texto.tokenizar("conta"))).containsExactly(2L);
+        Assertions.assertThat(indice.buscar(Texto.tokenizar("luz"))).isEmpty();
+        Assertions.assertThat(indice.tamanho()).isEqualTo(3);
+    }
+
+    @Test
+    public void deveManterPostagensOrdenadasEIgnorarRepetidos() {
+        //cenario
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.adicionar(10L, Texto.tokenizar("pix"));
+        indice.adicionar(3L, Texto.tokenizar("pix"));
+        indice.adicionar(7L, Texto.tokenizar("pix"));
+        indice.adicionar(3L, Texto.tokenizar("pix"));
+
+        //execucao e verificacao
+        Assertions.assertThat(indice.buscar(Texto.tokenizar("pix"))).containsExactly(3L, 7L, 10L);
+        Assertions.assertThat(indice.tamanho()).isEqualTo(3);
+    }
+
+}
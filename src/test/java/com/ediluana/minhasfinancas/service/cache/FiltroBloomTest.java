@@ -0,0 +1,29 @@
+package com.ediluana.minhasfinancas.service.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FiltroBloomTest {
+
+    @Test
+    public void naoDeveTerFalsoNegativoEManterTaxaDeFalsoPositivo() {
+        //cenario
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("usuario" + i + "@email.com");
+        }
+
+        //execucao
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertThat(filtro.talvezContenha("usuario" + i + "@email.com")).isTrue();
+            if (filtro.talvezContenha("outro" + i + "@email.com")) {
+                falsosPositivos++;
+            }
+        }
+
+        //verificacao
+        Assertions.assertThat(filtro.funcoes()).isEqualTo(7); // ~9,6 bits por elemento para 1%
+        Assertions.assertThat(falsosPositivos).isLessThan(300); // 1% esperado, folga para a variacao
+    }
+}
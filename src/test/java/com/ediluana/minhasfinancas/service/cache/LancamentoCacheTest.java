@@ -0,0 +1,127 @@
+package com.ediluana.minhasfinancas.service.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LancamentoCacheTest {
+
+    @Test
+    public void deveCarregarApenasUmaVezParaAMesmaConsulta() {
+        //cenario
+        LancamentoCache cache = criarCache(true);
+        AtomicInteger carregamentos = new AtomicInteger();
+
+        //execucao
+        cache.obter(1L, "saldo", List.of(), carregamentos::incrementAndGet);
+        Integer resultado = cache.obter(1L, "saldo", List.of(), carregamentos::incrementAndGet);
+
+        //verificacao
+        Assertions.assertThat(resultado).isEqualTo(1);
+        Assertions.assertThat(carregamentos.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void deveInvalidarSomenteAsEntradasDoUsuario() {
+        //cenario
+        VersaoLancamentos versoes = new VersoesEmMemoria();
+        LancamentoCache cache = criarCache(true, versoes);
+        AtomicInteger carregamentos = new AtomicInteger();
+        cache.obter(1L, "saldo", List.of(), carregamentos::incrementAndGet);
+        cache.obter(2L, "saldo", List.of(), carregamentos::incrementAndGet);
+
+        //execucao
+        versoes.incrementar(1L); // escrita do usuario 1
+        cache.obter(1L, "saldo", List.of(), carregamentos::incrementAndGet);
+        cache.obter(2L, "saldo", List.of(), carregamentos::incrementAndGet);
+
+        //verificacao
+        Assertions.assertThat(carregamentos.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void naoDeveReaproveitarCargaQueTerminouDepoisDeUmaEscrita() {
+        //cenario
+        VersaoLancamentos versoes = new VersoesEmMemoria();
+        LancamentoCache cache = criarCache(true, versoes);
+        AtomicInteger carregamentos = new AtomicInteger();
+
+        //execucao
+        cache.obter(1L, "saldo", List.of(), () -> {
+            versoes.incrementar(1L); // escrita confirmada enquanto a leitura carregava
+            return carregamentos.incrementAndGet();
+        });
+        Integer resultado = cache.obter(1L, "saldo", List.of(), carregamentos::incrementAndGet);
+
+        //verificacao
+        Assertions.assertThat(resultado).isEqualTo(2); // a carga antiga ficou na chave da versao anterior
+    }
+
+    @Test
+    public void naoDeveGuardarNadaQuandoDesabilitado() {
+        //cenario
+        LancamentoCache cache = criarCache(false);
+        AtomicInteger carregamentos = new AtomicInteger();
+
+        //execucao
+        cache.obter(1L, "saldo", List.of(), carregamentos::incrementAndGet);
+        cache.obter(1L, "saldo", List.of(), carregamentos::incrementAndGet);
+
+        //verificacao
+        Assertions.assertThat(carregamentos.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void naoDeveGuardarLeituraFeitaDentroDeUmaEscrita() {
+        //cenario
+        LancamentoCache cache = criarCache(true);
+        AtomicInteger carregamentos = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true); // a escrita ainda pode ser desfeita
+        try {
+            //execucao
+            cache.obter(1L, "saldo", List.of(), carregamentos::incrementAndGet);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        cache.obter(1L, "saldo", List.of(), carregamentos::incrementAndGet);
+
+        //verificacao
+        Assertions.assertThat(carregamentos.get()).isEqualTo(2);
+    }
+
+    private LancamentoCache criarCache(boolean habilitado) {
+        return criarCache(habilitado, new VersoesEmMemoria());
+    }
+
+    @SuppressWarnings("unchecked")
+    private LancamentoCache criarCache(boolean habilitado, VersaoLancamentos versoes) {
+        return new LancamentoCache(habilitado, 100, Duration.ofMinutes(1), versoes, Mockito.mock(ObjectProvider.class));
+    }
+
+    static class VersoesEmMemoria extends VersaoLancamentos { // sem banco: so o que o cache le da versao
+
+        private final Map<Long, Long> versoes = new ConcurrentHashMap<>();
+
+        VersoesEmMemoria() {
+            super(null);
+        }
+
+        @Override
+        public long obter(Long idUsuario) {
+            return versoes.getOrDefault(idUsuario, 0L);
+        }
+
+        @Override
+        public void incrementar(Long idUsuario) {
+            versoes.merge(idUsuario, 1L, Long::sum);
+        }
+    }
+}
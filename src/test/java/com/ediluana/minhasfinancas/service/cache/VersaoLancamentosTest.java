@@ -0,0 +1,36 @@
+package com.ediluana.minhasfinancas.service.cache;
+
+import com.ediluana.minhasfinancas.model.repository.UsuarioRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+
+public class VersaoLancamentosTest {
+
+    UsuarioRepository repository = Mockito.mock(UsuarioRepository.class);
+
+    VersaoLancamentos versoes = new VersaoLancamentos(repository);
+
+    @Test
+    public void deveLerAVersaoGravadaNoUsuario() {
+        //cenario
+        Mockito.when(repository.obterVersaoLancamentos(1L)).thenReturn(Optional.of(7L));
+
+        //execucao e verificacao
+        Assertions.assertThat(versoes.obter(1L)).isEqualTo(7L);
+        Assertions.assertThat(versoes.obter(2L)).isZero(); // usuario inexistente
+    }
+
+    @Test
+    public void deveIncrementarNoBancoSoQuandoHouverUsuario() {
+        //execucao
+        versoes.incrementar(1L);
+        versoes.incrementar(null);
+
+        //verificacao
+        Mockito.verify(repository).incrementarVersaoLancamentos(1L);
+        Mockito.verifyNoMoreInteractions(repository);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+public class SequenciaLancamentoInicializadorTest {
+
+    @Test
+    public void deveAlinharSobATravaESoComIdsAFrenteDaSequence() throws Exception {
+        //cenario
+        Connection conexao = Mockito.mock(Connection.class);
+        Statement sql = Mockito.mock(Statement.class);
+        ResultSet alinhada = Mockito.mock(ResultSet.class);
+        Mockito.when(conexao.getAutoCommit()).thenReturn(true);
+        Mockito.when(conexao.createStatement()).thenReturn(sql);
+        Mockito.when(sql.executeQuery(SequenciaLancamentoInicializador.ALINHAR)).thenReturn(alinhada);
+
+        //execucao
+        SequenciaLancamentoInicializador.alinhar(conexao);
+
+        //verificacao
+        InOrder ordem = Mockito.inOrder(conexao, sql);
+        ordem.verify(conexao).setAutoCommit(false);
+        ordem.verify(sql).execute("select pg_advisory_xact_lock(" + SequenciaLancamentoInicializador.TRAVA + ")");
+        ordem.verify(sql).executeQuery(SequenciaLancamentoInicializador.ALINHAR);
+        ordem.verify(conexao).commit();
+        ordem.verify(conexao).setAutoCommit(true);
+        Assertions.assertThat(SequenciaLancamentoInicializador.ALINHAR).contains("m.maximo >= s.last_value"); // subida normal nao mexe na sequence
+    }
+}
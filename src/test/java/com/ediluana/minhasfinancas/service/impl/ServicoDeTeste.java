@@ -0,0 +1,17 @@
+package com.ediluana.minhasfinancas.service.impl;
+
+import com.ediluana.minhasfinancas.excepition.RegraNegocioException;
+
+import java.util.List;
+
+public class ServicoDeTeste {
+    // no pacote service.impl para cair no pointcut do MetricasAspect
+
+    public List<Integer> buscar() {
+        return List.of(1, 2, 3);
+    }
+
+    public void falhar() {
+        throw new RegraNegocioException("erro de negocio");
+    }
+}
@@ -0,0 +1,51 @@
+package com.ediluana.minhasfinancas.service.limite;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LimitadorRequisicoesTest {
+
+    AtomicLong relogio = new AtomicLong();
+
+    LimitadorRequisicoes limitador = new LimitadorRequisicoes(true, new LimitadorRequisicoes.Taxa(2, Duration.ofMinutes(1)),
+            new LimitadorRequisicoes.Taxa(100, Duration.ofMinutes(1)), 1000, relogio::get);
+
+    @Test
+    public void deveNegarAposEsgotarAsFichasEReporComOTempo() {
+        //execucao e verificacao
+        Assertions.assertThat(limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_IP, "10.0.0.1")).isZero();
+        Assertions.assertThat(limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_IP, "10.0.0.1")).isZero();
+        long espera = limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_IP, "10.0.0.1");
+        Assertions.assertThat(espera).isEqualTo(TimeUnit.SECONDS.toNanos(30)); // 2 fichas por minuto
+        Assertions.assertThat(LimitadorRequisicoes.segundos(espera)).isEqualTo(30);
+
+        relogio.addAndGet(espera);
+        Assertions.assertThat(limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_IP, "10.0.0.1")).isZero();
+    }
+
+    @Test
+    public void deveManterBaldesSeparadosPorTipoEChave() {
+        //cenario
+        limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_IP, "10.0.0.1");
+        limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_IP, "10.0.0.1");
+
+        //verificacao
+        Assertions.assertThat(limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_IP, "10.0.0.2")).isZero();
+        Assertions.assertThat(limitador.consumir(LimitadorRequisicoes.Limite.LOGIN_EMAIL, "10.0.0.1")).isZero();
+        Assertions.assertThat(limitador.consumir(LimitadorRequisicoes.Limite.ESCRITA_IP, "10.0.0.1")).isZero();
+    }
+
+    @Test
+    public void naoDeveLimitarQuandoDesabilitado() {
+        LimitadorRequisicoes desabilitado = new LimitadorRequisicoes(false, new LimitadorRequisicoes.Taxa(1, Duration.ofMinutes(1)),
+                new LimitadorRequisicoes.Taxa(1, Duration.ofMinutes(1)), 1000, relogio::get);
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertThat(desabilitado.consumir(LimitadorRequisicoes.Limite.LOGIN_IP, "10.0.0.1")).isZero();
+        }
+    }
+}
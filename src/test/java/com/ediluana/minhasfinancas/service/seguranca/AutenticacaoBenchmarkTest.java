@@ -0,0 +1,54 @@
+package com.ediluana.minhasfinancas.service.seguranca;
+
+import com.ediluana.minhasfinancas.ApoioBenchmark;
+import com.ediluana.minhasfinancas.service.TokenService;
+import com.ediluana.minhasfinancas.service.impl.TokenServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+// custo separado do login (hash PBKDF2 da senha) e da verificacao do token a cada requisicao
+// a verificacao fica em memoria: precisa custar no maximo alguns microssegundos e ser ordens de grandeza mais barata que o login
+// executar com: ./mvnw test -Dtest=AutenticacaoBenchmarkTest -Dbenchmark=true [-Dbenchmark.iteracoes=310000 -Dbenchmark.token-maximo-us=50]
+@ApoioBenchmark.Habilitado
+public class AutenticacaoBenchmarkTest {
+
+    @Test
+    public void compararLoginComVerificacaoDoToken() {
+        CodificadorSenha codificador = new CodificadorSenha(Integer.getInteger("benchmark.iteracoes", 310_000));
+        TokenService tokenService = new TokenServiceImpl("segredo-do-benchmark", Duration.ofHours(1));
+        String hash = codificador.codificar("senha");
+        String token = tokenService.gerar(1L);
+
+        int logins = 20;
+        for (int i = 0; i < 3; i++) { // aquecimento
+            codificador.confere("senha", hash);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < logins; i++) {
+            codificador.confere("senha", hash);
+        }
+        long tempoLogin = (System.nanoTime() - inicio) / logins;
+
+        int verificacoes = 1_000_000;
+        long ok = 0;
+        for (int i = 0; i < 100_000; i++) { // aquecimento
+            ok += tokenService.validar(token);
+        }
+        inicio = System.nanoTime();
+        for (int i = 0; i < verificacoes; i++) {
+            ok += tokenService.validar(token);
+        }
+        long tempoToken = (System.nanoTime() - inicio) / verificacoes;
+
+        System.out.printf("login (pbkdf2)        : %10.3f ms por tentativa%n", tempoLogin / 1e6);
+        System.out.printf("token (hmac-sha256)   : %10.3f us por requisicao%n", tempoToken / 1e3);
+        System.out.printf("razao login/requisicao: %10.0fx (checksum %d)%n", (double) tempoLogin / tempoToken, ok);
+
+        Assertions.assertThat(ok).as("tokens validos").isEqualTo(100_000L + verificacoes);
+        Assertions.assertThat(tempoToken / 1e3).as("verificacao do token em us").isLessThanOrEqualTo(Double.parseDouble(System.getProperty("benchmark.token-maximo-us", "50")));
+        Assertions.assertThat((double) tempoLogin / tempoToken).as("razao login/requisicao").isGreaterThanOrEqualTo(1000);
+    }
+
+}
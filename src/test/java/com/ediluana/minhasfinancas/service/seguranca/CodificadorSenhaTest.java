@@ -0,0 +1,31 @@
+package com.ediluana.minhasfinancas.service.seguranca;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CodificadorSenhaTest {
+
+    CodificadorSenha codificador = new CodificadorSenha(1000);
+
+    @Test
+    public void deveConferirSenhaCodificadaComSalt() {
+        //execucao
+        String primeira = codificador.codificar("senha");
+        String segunda = codificador.codificar("senha");
+
+        //verificacao
+        Assertions.assertThat(primeira).startsWith("pbkdf2-sha256$1000$").isNotEqualTo(segunda); // salt diferente a cada hash
+        Assertions.assertThat(codificador.confere("senha", primeira)).isTrue();
+        Assertions.assertThat(codificador.confere("senha", segunda)).isTrue();
+        Assertions.assertThat(codificador.confere("outra", primeira)).isFalse();
+        Assertions.assertThat(codificador.precisaRecodificar(primeira)).isFalse();
+    }
+
+    @Test
+    public void deveAceitarSenhaAntigaEmTextoPuroEPedirRecodificacao() {
+        Assertions.assertThat(codificador.confere("senha", "senha")).isTrue();
+        Assertions.assertThat(codificador.confere("outra", "senha")).isFalse();
+        Assertions.assertThat(codificador.precisaRecodificar("senha")).isTrue();
+        Assertions.assertThat(new CodificadorSenha(2000).precisaRecodificar(codificador.codificar("senha"))).isTrue(); // custo aumentou
+    }
+}